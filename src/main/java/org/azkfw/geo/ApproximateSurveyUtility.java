@@ -0,0 +1,323 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * このクラスは、補間格子を用いた近似計算を行う測量のユーティリティクラスです。
+ * <p>
+ * 系毎に{@link SurveyUtility}で計算した格子を生成し、格子内の点は双一次補間で求める。
+ * 格子の範囲外の点は{@link SurveyUtility}で厳密に計算する。
+ * 格子は初回使用時、または{@link #prepare(Zone...)}の呼び出し時に生成する。
+ * </p>
+ * <p>
+ * 既定の格子範囲は、順方向(緯度、経度)が原点から緯度±5度・経度±2度、
+ * 逆方向(X, Y)が原点からX±560km・Y±220kmとする。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class ApproximateSurveyUtility implements PlaneConverter {
+
+	/** 既定の格子間隔[degree] */
+	public static final double DEFAULT_DEGREE_SPACING = 0.01;
+	/** 既定の格子間隔[m] */
+	public static final double DEFAULT_METER_SPACING = 1000.0;
+
+	/** 格子範囲(緯度)[degree] */
+	private static final double LATITUDE_RANGE = 5.0;
+	/** 格子範囲(経度)[degree] */
+	private static final double LONGITUDE_RANGE = 2.0;
+	/** 格子範囲(X)[m] */
+	private static final double X_RANGE = 560000.0;
+	/** 格子範囲(Y)[m] */
+	private static final double Y_RANGE = 220000.0;
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+
+	/** 格子間隔[degree] */
+	private final double degreeSpacing;
+	/** 格子間隔[m] */
+	private final double meterSpacing;
+
+	/** 順方向の格子(系毎) */
+	private final AtomicReferenceArray<InterpolationGrid> forwardGrids;
+	/** 逆方向の格子(系毎) */
+	private final AtomicReferenceArray<InterpolationGrid> inverseGrids;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 測地系はGRS80となる。
+	 * </p>
+	 */
+	public ApproximateSurveyUtility() {
+		this(SokuchiKei.GRS80);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param sokuchiKei 測地系
+	 */
+	public ApproximateSurveyUtility(final SokuchiKei sokuchiKei) {
+		this(sokuchiKei, DEFAULT_DEGREE_SPACING, DEFAULT_METER_SPACING);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param sokuchiKei 測地系
+	 * @param aDegreeSpacing 順方向の格子間隔[degree]
+	 * @param aMeterSpacing 逆方向の格子間隔[m]
+	 */
+	public ApproximateSurveyUtility(final SokuchiKei sokuchiKei, final double aDegreeSpacing, final double aMeterSpacing) {
+		if (!(0.0 < aDegreeSpacing) || !(0.0 < aMeterSpacing)) {
+			throw new IllegalArgumentException("spacing must be positive.");
+		}
+		survey = new SurveyUtility(sokuchiKei);
+		degreeSpacing = aDegreeSpacing;
+		meterSpacing = aMeterSpacing;
+		forwardGrids = new AtomicReferenceArray<InterpolationGrid>(Zone.values().length);
+		inverseGrids = new AtomicReferenceArray<InterpolationGrid>(Zone.values().length);
+	}
+
+	/**
+	 * 指定した系の格子を生成する。
+	 *
+	 * @param zones 系番号
+	 */
+	public void prepare(final Zone... zones) {
+		for (Zone zone : zones) {
+			getForwardGrid(zone);
+			getInverseGrid(zone);
+		}
+	}
+
+	/**
+	 * 緯度、経度から平面直角座標を求める際の誤差上限の推定値を取得する。
+	 * <p>
+	 * 格子点の差分から求めた推定値であり、厳密な保証ではない。
+	 * </p>
+	 *
+	 * @param zone 系番号
+	 * @return 誤差上限の推定値[m]
+	 */
+	public double getMaxError(final Zone zone) {
+		return getForwardGrid(zone).getMaxError();
+	}
+
+	/**
+	 * 平面直角座標から緯度、経度を求める際の誤差上限の推定値を取得する。
+	 * <p>
+	 * 格子点の差分から求めた推定値であり、厳密な保証ではない。
+	 * </p>
+	 *
+	 * @param zone 系番号
+	 * @return 誤差上限の推定値[degree]
+	 */
+	public double getInverseMaxError(final Zone zone) {
+		return getInverseGrid(zone).getMaxError();
+	}
+
+	/**
+	 * 緯度、経度から平面直角座標を求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param zone 系番号
+	 * @return x, y
+	 */
+	public double[] bl2xy(final double latitude, final double longitude, final Zone zone) {
+		double[] xy = new double[2];
+		bl2xy(latitude, longitude, zone, xy);
+		return xy;
+	}
+
+	/**
+	 * 緯度、経度から平面直角座標を求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param zone 系番号
+	 * @param xy 結果格納先(x, y)
+	 */
+	public void bl2xy(final double latitude, final double longitude, final Zone zone, final double[] xy) {
+		if (!getForwardGrid(zone).interpolate(latitude, longitude, xy, 0, xy, 1)) {
+			survey.bl2xy(latitude, longitude, zone, xy);
+		}
+	}
+
+	/**
+	 * 緯度、経度の配列から平面直角座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 */
+	public void bl2xy(final double[] latitudes, final double[] longitudes, final Zone zone, final double[] xs, final double[] ys) {
+		bl2xy(latitudes, longitudes, 0, latitudes.length, zone, xs, ys);
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲から平面直角座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 */
+	@Override
+	public void bl2xy(final double[] latitudes, final double[] longitudes, final int start, final int end, final Zone zone, final double[] xs,
+			final double[] ys) {
+		InterpolationGrid grid = getForwardGrid(zone);
+		for (int i = start; i < end; i++) {
+			if (!grid.interpolate(latitudes[i], longitudes[i], xs, i, ys, i)) {
+				survey.bl2xy(latitudes, longitudes, i, i + 1, zone, xs, ys);
+			}
+		}
+	}
+
+	/**
+	 * 平面直角座標から緯度、経度を求める
+	 *
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 * @param zone 系番号
+	 * @param bl 結果格納先(緯度[degree], 経度[degree])
+	 */
+	public void xy2bl(final double x, final double y, final Zone zone, final double[] bl) {
+		if (!getInverseGrid(zone).interpolate(x, y, bl, 0, bl, 1)) {
+			survey.xy2bl(x, y, zone, bl);
+		}
+	}
+
+	/**
+	 * 平面直角座標の配列から緯度、経度を求める
+	 *
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	public void xy2bl(final double[] xs, final double[] ys, final Zone zone, final double[] latitudes, final double[] longitudes) {
+		xy2bl(xs, ys, 0, xs.length, zone, latitudes, longitudes);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲から緯度、経度を求める
+	 *
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	@Override
+	public void xy2bl(final double[] xs, final double[] ys, final int start, final int end, final Zone zone, final double[] latitudes,
+			final double[] longitudes) {
+		InterpolationGrid grid = getInverseGrid(zone);
+		for (int i = start; i < end; i++) {
+			if (!grid.interpolate(xs[i], ys[i], latitudes, i, longitudes, i)) {
+				survey.xy2bl(xs, ys, i, i + 1, zone, latitudes, longitudes);
+			}
+		}
+	}
+
+	private InterpolationGrid getForwardGrid(final Zone zone) {
+		InterpolationGrid grid = forwardGrids.get(zone.ordinal());
+		if (null == grid) {
+			synchronized (forwardGrids) {
+				grid = forwardGrids.get(zone.ordinal());
+				if (null == grid) {
+					grid = createForwardGrid(zone);
+					forwardGrids.set(zone.ordinal(), grid);
+				}
+			}
+		}
+		return grid;
+	}
+
+	private InterpolationGrid getInverseGrid(final Zone zone) {
+		InterpolationGrid grid = inverseGrids.get(zone.ordinal());
+		if (null == grid) {
+			synchronized (inverseGrids) {
+				grid = inverseGrids.get(zone.ordinal());
+				if (null == grid) {
+					grid = createInverseGrid(zone);
+					inverseGrids.set(zone.ordinal(), grid);
+				}
+			}
+		}
+		return grid;
+	}
+
+	private InterpolationGrid createForwardGrid(final Zone zone) {
+		double lat0 = zone.getLatitude().toDegree() - LATITUDE_RANGE;
+		double lon0 = zone.getLongitude().toDegree() - LONGITUDE_RANGE;
+		int na = (int) Math.ceil(2.0 * LATITUDE_RANGE / degreeSpacing) + 1;
+		int nb = (int) Math.ceil(2.0 * LONGITUDE_RANGE / degreeSpacing) + 1;
+
+		double[] latitudes = new double[na * nb];
+		double[] longitudes = new double[na * nb];
+		for (int ia = 0; ia < na; ia++) {
+			for (int ib = 0; ib < nb; ib++) {
+				latitudes[ia * nb + ib] = lat0 + ia * degreeSpacing;
+				longitudes[ia * nb + ib] = lon0 + ib * degreeSpacing;
+			}
+		}
+
+		double[] xs = new double[na * nb];
+		double[] ys = new double[na * nb];
+		survey.bl2xy(latitudes, longitudes, zone, xs, ys);
+		return new InterpolationGrid(lat0, degreeSpacing, na, lon0, degreeSpacing, nb, xs, ys);
+	}
+
+	private InterpolationGrid createInverseGrid(final Zone zone) {
+		double x0 = -X_RANGE;
+		double y0 = -Y_RANGE;
+		int na = (int) Math.ceil(2.0 * X_RANGE / meterSpacing) + 1;
+		int nb = (int) Math.ceil(2.0 * Y_RANGE / meterSpacing) + 1;
+
+		double[] xs = new double[na * nb];
+		double[] ys = new double[na * nb];
+		for (int ia = 0; ia < na; ia++) {
+			for (int ib = 0; ib < nb; ib++) {
+				xs[ia * nb + ib] = x0 + ia * meterSpacing;
+				ys[ia * nb + ib] = y0 + ib * meterSpacing;
+			}
+		}
+
+		double[] latitudes = new double[na * nb];
+		double[] longitudes = new double[na * nb];
+		survey.xy2bl(xs, ys, zone, latitudes, longitudes);
+		return new InterpolationGrid(x0, meterSpacing, na, y0, meterSpacing, nb, latitudes, longitudes);
+	}
+}
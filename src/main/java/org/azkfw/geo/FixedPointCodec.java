@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+/**
+ * このクラスは、座標を32bit固定小数点で表現するためのユーティリティクラスです。
+ * <p>
+ * 緯度、経度は1e-7度単位、平面直角座標は系の原点からのミリメートル単位の<code>int</code>で表現する。
+ * 範囲外の値は<code>int</code>の最大値・最小値に丸め、NaNは0となる。
+ * </p>
+ * <p>
+ * 一括変換の処理は単純なループとしており、JITによるベクトル化の対象となる。
+ * 変換処理は作業領域を{@link #CHUNK_SIZE}単位で確保し、入力全体の<code>double</code>配列は生成しない。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class FixedPointCodec {
+
+	/** 緯度、経度の倍率(1e-7度単位) */
+	public static final double DEGREE_SCALE = 1e7;
+	/** 平面直角座標の倍率(ミリメートル単位) */
+	public static final double METER_SCALE = 1e3;
+
+	/** 変換時の作業領域の要素数 */
+	public static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * コンストラクタ
+	 */
+	private FixedPointCodec() {
+
+	}
+
+	/**
+	 * 緯度、経度を固定小数点へ変換する。
+	 *
+	 * @param degree 緯度、経度[degree]
+	 * @return 固定小数点[1e-7 degree]
+	 */
+	public static int encodeDegree(final double degree) {
+		return (int) Math.floor(degree * DEGREE_SCALE + 0.5);
+	}
+
+	/**
+	 * 固定小数点を緯度、経度へ変換する。
+	 *
+	 * @param value 固定小数点[1e-7 degree]
+	 * @return 緯度、経度[degree]
+	 */
+	public static double decodeDegree(final int value) {
+		return value / DEGREE_SCALE;
+	}
+
+	/**
+	 * 平面直角座標を固定小数点へ変換する。
+	 *
+	 * @param meter 座標[m]
+	 * @return 固定小数点[mm]
+	 */
+	public static int encodeMeter(final double meter) {
+		return (int) Math.floor(meter * METER_SCALE + 0.5);
+	}
+
+	/**
+	 * 固定小数点を平面直角座標へ変換する。
+	 *
+	 * @param value 固定小数点[mm]
+	 * @return 座標[m]
+	 */
+	public static double decodeMeter(final int value) {
+		return value / METER_SCALE;
+	}
+
+	/**
+	 * 緯度、経度の配列を固定小数点へ変換する。
+	 *
+	 * @param src 緯度、経度[degree]
+	 * @param srcPos 変換元の開始位置
+	 * @param dst 結果格納先[1e-7 degree]
+	 * @param dstPos 結果格納先の開始位置
+	 * @param length 要素数
+	 */
+	public static void encodeDegrees(final double[] src, final int srcPos, final int[] dst, final int dstPos, final int length) {
+		for (int i = 0; i < length; i++) {
+			dst[dstPos + i] = (int) Math.floor(src[srcPos + i] * DEGREE_SCALE + 0.5);
+		}
+	}
+
+	/**
+	 * 固定小数点の配列を緯度、経度へ変換する。
+	 *
+	 * @param src 固定小数点[1e-7 degree]
+	 * @param srcPos 変換元の開始位置
+	 * @param dst 結果格納先[degree]
+	 * @param dstPos 結果格納先の開始位置
+	 * @param length 要素数
+	 */
+	public static void decodeDegrees(final int[] src, final int srcPos, final double[] dst, final int dstPos, final int length) {
+		for (int i = 0; i < length; i++) {
+			dst[dstPos + i] = src[srcPos + i] / DEGREE_SCALE;
+		}
+	}
+
+	/**
+	 * 平面直角座標の配列を固定小数点へ変換する。
+	 *
+	 * @param src 座標[m]
+	 * @param srcPos 変換元の開始位置
+	 * @param dst 結果格納先[mm]
+	 * @param dstPos 結果格納先の開始位置
+	 * @param length 要素数
+	 */
+	public static void encodeMeters(final double[] src, final int srcPos, final int[] dst, final int dstPos, final int length) {
+		for (int i = 0; i < length; i++) {
+			dst[dstPos + i] = (int) Math.floor(src[srcPos + i] * METER_SCALE + 0.5);
+		}
+	}
+
+	/**
+	 * 固定小数点の配列を平面直角座標へ変換する。
+	 *
+	 * @param src 固定小数点[mm]
+	 * @param srcPos 変換元の開始位置
+	 * @param dst 結果格納先[m]
+	 * @param dstPos 結果格納先の開始位置
+	 * @param length 要素数
+	 */
+	public static void decodeMeters(final int[] src, final int srcPos, final double[] dst, final int dstPos, final int length) {
+		for (int i = 0; i < length; i++) {
+			dst[dstPos + i] = src[srcPos + i] / METER_SCALE;
+		}
+	}
+
+	/**
+	 * 固定小数点の緯度、経度から固定小数点の平面直角座標を求める
+	 *
+	 * @param survey 変換処理(厳密計算または近似計算の測量ユーティリティ)
+	 * @param latitudes 緯度[1e-7 degree]
+	 * @param longitudes 経度[1e-7 degree]
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)[mm]
+	 * @param ys 結果格納先(y)[mm]
+	 */
+	public static void bl2xy(final PlaneConverter survey, final int[] latitudes, final int[] longitudes, final Zone zone, final int[] xs,
+			final int[] ys) {
+		int length = latitudes.length;
+		int size = Math.min(length, CHUNK_SIZE);
+		double[] lat = new double[size];
+		double[] lon = new double[size];
+		double[] x = new double[size];
+		double[] y = new double[size];
+		for (int offset = 0; offset < length; offset += size) {
+			int n = Math.min(size, length - offset);
+			decodeDegrees(latitudes, offset, lat, 0, n);
+			decodeDegrees(longitudes, offset, lon, 0, n);
+			survey.bl2xy(lat, lon, 0, n, zone, x, y);
+			encodeMeters(x, 0, xs, offset, n);
+			encodeMeters(y, 0, ys, offset, n);
+		}
+	}
+
+	/**
+	 * 固定小数点の平面直角座標から固定小数点の緯度、経度を求める
+	 *
+	 * @param survey 変換処理(厳密計算または近似計算の測量ユーティリティ)
+	 * @param xs X座標[mm]
+	 * @param ys Y座標[mm]
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度)[1e-7 degree]
+	 * @param longitudes 結果格納先(経度)[1e-7 degree]
+	 */
+	public static void xy2bl(final PlaneConverter survey, final int[] xs, final int[] ys, final Zone zone, final int[] latitudes,
+			final int[] longitudes) {
+		int length = xs.length;
+		int size = Math.min(length, CHUNK_SIZE);
+		double[] x = new double[size];
+		double[] y = new double[size];
+		double[] lat = new double[size];
+		double[] lon = new double[size];
+		for (int offset = 0; offset < length; offset += size) {
+			int n = Math.min(size, length - offset);
+			decodeMeters(xs, offset, x, 0, n);
+			decodeMeters(ys, offset, y, 0, n);
+			survey.xy2bl(x, y, 0, n, zone, lat, lon);
+			encodeDegrees(lat, 0, latitudes, offset, n);
+			encodeDegrees(lon, 0, longitudes, offset, n);
+		}
+	}
+}
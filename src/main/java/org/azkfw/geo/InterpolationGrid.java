@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+/**
+ * このクラスは、等間隔格子上の2値関数を双一次補間するクラスです。
+ * <p>
+ * 入力(a, b)に対する出力(p, q)を格子点上に保持する。格子点の値は行優先(aが行、bが列)で格納する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+final class InterpolationGrid {
+
+	/** 入力aの開始値 */
+	private final double a0;
+	/** 入力bの開始値 */
+	private final double b0;
+	/** 入力aの格子間隔の逆数 */
+	private final double invDa;
+	/** 入力bの格子間隔の逆数 */
+	private final double invDb;
+	/** 入力aの格子点数 */
+	private final int na;
+	/** 入力bの格子点数 */
+	private final int nb;
+
+	/** 出力p */
+	private final double[] ps;
+	/** 出力q */
+	private final double[] qs;
+
+	/** 誤差上限の推定値 */
+	private final double maxError;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aA0 入力aの開始値
+	 * @param aDa 入力aの格子間隔
+	 * @param aNa 入力aの格子点数
+	 * @param aB0 入力bの開始値
+	 * @param aDb 入力bの格子間隔
+	 * @param aNb 入力bの格子点数
+	 * @param aPs 出力p(na * nb)
+	 * @param aQs 出力q(na * nb)
+	 */
+	InterpolationGrid(final double aA0, final double aDa, final int aNa, final double aB0, final double aDb, final int aNb, final double[] aPs,
+			final double[] aQs) {
+		a0 = aA0;
+		b0 = aB0;
+		invDa = 1.0 / aDa;
+		invDb = 1.0 / aDb;
+		na = aNa;
+		nb = aNb;
+		ps = aPs;
+		qs = aQs;
+
+		maxError = Math.hypot(bound(aPs), bound(aQs));
+	}
+
+	/**
+	 * 誤差上限の推定値を取得する。
+	 * <p>
+	 * 双一次補間の誤差は h<sub>a</sub><sup>2</sup>/8・max|f<sub>aa</sub>| + h<sub>b</sub><sup>2</sup>/8・max|f<sub>bb</sub>| で抑えられる。
+	 * 二階差分は前後2間隔内のいずれかの点の二階微分に等しいため、格子内の二階微分の最大値は
+	 * 二階差分の最大値に三階差分の最大値の2倍(2間隔分の変化量)を加えて求める。
+	 * 三階微分も格子点で標本化するため厳密な保証ではなく、推定値である。
+	 * </p>
+	 *
+	 * @return 誤差上限の推定値(出力p, qの単位)
+	 */
+	double getMaxError() {
+		return maxError;
+	}
+
+	/**
+	 * 補間する。
+	 *
+	 * @param a 入力a
+	 * @param b 入力b
+	 * @param ps2 結果格納先(p)
+	 * @param pi 結果格納位置(p)
+	 * @param qs2 結果格納先(q)
+	 * @param qi 結果格納位置(q)
+	 * @return 格子の範囲外の場合、<code>false</code>
+	 */
+	boolean interpolate(final double a, final double b, final double[] ps2, final int pi, final double[] qs2, final int qi) {
+		double fa = (a - a0) * invDa;
+		double fb = (b - b0) * invDb;
+		// NaNも範囲外とする
+		if (!(0.0 <= fa && fa < na - 1 && 0.0 <= fb && fb < nb - 1)) {
+			return false;
+		}
+
+		int ia = (int) fa;
+		int ib = (int) fb;
+		double ta = fa - ia;
+		double tb = fb - ib;
+
+		int k00 = ia * nb + ib;
+		int k10 = k00 + nb;
+
+		double p0 = ps[k00] + (ps[k00 + 1] - ps[k00]) * tb;
+		double p1 = ps[k10] + (ps[k10 + 1] - ps[k10]) * tb;
+		ps2[pi] = p0 + (p1 - p0) * ta;
+
+		double q0 = qs[k00] + (qs[k00 + 1] - qs[k00]) * tb;
+		double q1 = qs[k10] + (qs[k10 + 1] - qs[k10]) * tb;
+		qs2[qi] = q0 + (q1 - q0) * ta;
+		return true;
+	}
+
+	private double bound(final double[] values) {
+		double maxAA = 0.0;
+		double maxBB = 0.0;
+		double maxAAA = 0.0;
+		double maxBBB = 0.0;
+		for (int ia = 0; ia < na; ia++) {
+			for (int ib = 0; ib < nb; ib++) {
+				int k = ia * nb + ib;
+				if (0 < ia && ia < na - 1) {
+					maxAA = Math.max(maxAA, Math.abs(values[k - nb] - 2.0 * values[k] + values[k + nb]));
+				}
+				if (0 < ia && ia < na - 2) {
+					maxAAA = Math.max(maxAAA, Math.abs(values[k + 2 * nb] - 3.0 * values[k + nb] + 3.0 * values[k] - values[k - nb]));
+				}
+				if (0 < ib && ib < nb - 1) {
+					maxBB = Math.max(maxBB, Math.abs(values[k - 1] - 2.0 * values[k] + values[k + 1]));
+				}
+				if (0 < ib && ib < nb - 2) {
+					maxBBB = Math.max(maxBBB, Math.abs(values[k + 2] - 3.0 * values[k + 1] + 3.0 * values[k] - values[k - 1]));
+				}
+			}
+		}
+		// 二階差分 = h^2 * f''、三階差分 = h^3 * f'''
+		// 格子内の点は二階差分の評価点から2h以内のため、h^2 * |f''| <= 二階差分 + 2 * 三階差分
+		return (maxAA + 2.0 * maxAAA + maxBB + 2.0 * maxBBB) / 8.0;
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * このクラスは、配列の一括処理を並列に実行するユーティリティクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class ParallelUtility {
+
+	/** 1タスクあたりの最小要素数 */
+	public static final int MIN_CHUNK_SIZE = 1024;
+
+	/**
+	 * このインターフェースは、範囲単位の処理を定義したインターフェースです。
+	 *
+	 * @author kawakicchi
+	 */
+	public static interface RangeTask {
+
+		/**
+		 * 指定範囲を処理する。
+		 *
+		 * @param start 開始位置
+		 * @param end 終了位置(この位置は含まない)
+		 */
+		void execute(final int start, final int end);
+	}
+
+	/**
+	 * コンストラクタ
+	 */
+	private ParallelUtility() {
+
+	}
+
+	/**
+	 * 範囲[0, length)を分割し、並列に処理する。
+	 * <p>
+	 * エグゼキュータが<code>null</code>の場合、または要素数が少ない場合は呼び出しスレッドで処理する。
+	 * </p>
+	 *
+	 * @param executor エグゼキュータ
+	 * @param length 要素数
+	 * @param task 処理
+	 */
+	public static void execute(final ExecutorService executor, final int length, final RangeTask task) {
+		if (null == executor || length <= MIN_CHUNK_SIZE) {
+			task.execute(0, length);
+			return;
+		}
+
+		int chunks = Math.min(Runtime.getRuntime().availableProcessors() * 4, (length + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE);
+		int chunkSize = (length + chunks - 1) / chunks;
+
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(chunks);
+		for (int start = 0; start < length; start += chunkSize) {
+			final int s = start;
+			final int e = Math.min(length, start + chunkSize);
+			futures.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					task.execute(s, e);
+					return null;
+				}
+			}));
+		}
+
+		try {
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+/**
+ * このインターフェースは、緯度、経度と平面直角座標の一括変換を定義したインターフェースです。
+ * <p>
+ * 厳密計算({@link SurveyUtility})と近似計算({@link ApproximateSurveyUtility})を同じ処理で扱うために使用する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public interface PlaneConverter {
+
+	/**
+	 * 緯度、経度の配列の指定範囲から平面直角座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 */
+	void bl2xy(final double[] latitudes, final double[] longitudes, final int start, final int end, final Zone zone, final double[] xs,
+			final double[] ys);
+
+	/**
+	 * 平面直角座標の配列の指定範囲から緯度、経度を求める
+	 *
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	void xy2bl(final double[] xs, final double[] ys, final int start, final int end, final Zone zone, final double[] latitudes,
+			final double[] longitudes);
+}
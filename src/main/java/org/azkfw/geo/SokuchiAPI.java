@@ -12,15 +12,21 @@ import java.util.regex.Pattern;
 
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.util.EntityUtils;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 public class SokuchiAPI {
 
+	/** 測量計算サイトのURL */
+	public static final String DEFAULT_URL = "http://vldb.gsi.go.jp/sokuchi/surveycalc/surveycalc/";
+
 	/** 文字コード取得用パターン */
 	private static final Pattern PTN_CHARSET = Pattern.compile("charset\\s*=\\s*([^\\s]+)\\s*;");
 
@@ -85,7 +91,8 @@ public class SokuchiAPI {
 		public double scaleFactor;
 	}
 
-	private String url = "http://vldb.gsi.go.jp/sokuchi/surveycalc/surveycalc/";
+	/** URL */
+	private String url;
 
 	/** 測地系 */
 	private SokuchiKei sokuchiKei;
@@ -108,9 +115,34 @@ public class SokuchiAPI {
 	 * @param aSokuchiKei 測地系
 	 */
 	public SokuchiAPI(final SokuchiKei aSokuchiKei) {
+		this(aSokuchiKei, DEFAULT_URL);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param aSokuchiKei 測地系
+	 * @param aUrl URL(<code>bl2xy.pl</code>、<code>xy2bl.pl</code>を配置したディレクトリ)
+	 */
+	public SokuchiAPI(final SokuchiKei aSokuchiKei, final String aUrl) {
+		this(aSokuchiKei, aUrl, new DefaultHttpClient());
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 複数スレッドから利用する場合は、コネクションプールを持つHTTPクライアントを指定すること。
+	 * </p>
+	 * 
+	 * @param aSokuchiKei 測地系
+	 * @param aUrl URL(<code>bl2xy.pl</code>、<code>xy2bl.pl</code>を配置したディレクトリ)
+	 * @param aHttpClient HTTPクライアント
+	 */
+	public SokuchiAPI(final SokuchiKei aSokuchiKei, final String aUrl, final HttpClient aHttpClient) {
 		sokuchiKei = aSokuchiKei;
+		setUrl(aUrl);
 
-		httpClient = new DefaultHttpClient();
+		httpClient = aHttpClient;
 	}
 
 	/**
@@ -180,6 +212,27 @@ public class SokuchiAPI {
 		return sokuchiKei;
 	}
 
+	/**
+	 * URLを設定する。
+	 * 
+	 * @param aUrl URL(<code>bl2xy.pl</code>、<code>xy2bl.pl</code>を配置したディレクトリ)
+	 */
+	public void setUrl(final String aUrl) {
+		if (null == aUrl) {
+			throw new IllegalArgumentException("url is null.");
+		}
+		url = aUrl.endsWith("/") ? aUrl : aUrl + "/";
+	}
+
+	/**
+	 * URLを取得する。
+	 * 
+	 * @return URL
+	 */
+	public String getUrl() {
+		return url;
+	}
+
 	/**
 	 * 平面直角座標への換算
 	 * 
@@ -200,6 +253,9 @@ public class SokuchiAPI {
 		params.put("longitude", Double.toString(longitude));
 
 		Map<String, Object> map = get("bl2xy.pl", params);
+		if (null == map) {
+			return null;
+		}
 
 		Map<String, Object> data = (Map<String, Object>) map.get("OutputData");
 		if (null != data) {
@@ -233,6 +289,9 @@ public class SokuchiAPI {
 		params.put("publicY", Double.toString(publicY));
 
 		Map<String, Object> map = get("xy2bl.pl", params);
+		if (null == map) {
+			return null;
+		}
 
 		Map<String, Object> data = (Map<String, Object>) map.get("OutputData");
 		if (null != data) {
@@ -250,9 +309,13 @@ public class SokuchiAPI {
 	private Map<String, Object> get(final String aAreas, final Map<String, String> aParams) {
 		Map<String, Object> result = null;
 
+		HttpResponse response = null;
 		try {
 			HttpGet httpGet = new HttpGet(createUrl(aAreas, aParams));
-			HttpResponse response = httpClient.execute(httpGet);
+			response = httpClient.execute(httpGet);
+			if (HttpStatus.SC_OK != response.getStatusLine().getStatusCode()) {
+				return null;
+			}
 
 			String charset = "UTF-8";
 			for (Header header : response.getAllHeaders()) {
@@ -273,6 +336,17 @@ public class SokuchiAPI {
 			ex.printStackTrace();
 		} catch (IOException ex) {
 			ex.printStackTrace();
+		} catch (JsonParseException ex) {
+			ex.printStackTrace();
+		} finally {
+			// コネクションを再利用できるよう、レスポンスを読み切る
+			if (null != response) {
+				try {
+					EntityUtils.consume(response.getEntity());
+				} catch (IOException ex) {
+					ex.printStackTrace();
+				}
+			}
 		}
 
 		return result;
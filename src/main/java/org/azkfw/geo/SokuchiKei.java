@@ -48,4 +48,22 @@ public enum SokuchiKei {
 		this.a = a;
 		this.F = F;
 	}
+
+	/**
+	 * 離心率を取得する。
+	 * 
+	 * @return 離心率
+	 */
+	public double getE() {
+		return SurveyConstants.E[ordinal()];
+	}
+
+	/**
+	 * 離心率の2乗を取得する。
+	 * 
+	 * @return 離心率の2乗
+	 */
+	public double getE2() {
+		return SurveyConstants.E2[ordinal()];
+	}
 }
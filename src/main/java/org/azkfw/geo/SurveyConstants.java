@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+/**
+ * このクラスは、測地系、系ごとの定数を定義したクラスです。
+ * <p>
+ * 測地系の定数は{@link SokuchiKei#ordinal()}、系の定数は{@link Zone#ordinal()}を添字とする。
+ * </p>
+ * <p>
+ * このファイルはSurveyConstantsGeneratorで生成している。直接編集しないこと。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+final class SurveyConstants {
+
+	/** 離心率 */
+	static final double[] E = {
+			0.081819191042815778, // GRS80
+			0.081819190842621486, // WGS84
+			0.081696831195263830 // TokyoJapan
+	};
+
+	/** 離心率の2乗 */
+	static final double[] E2 = {
+			0.0066943800229007861, // GRS80
+			0.0066943799901413156, // WGS84
+			0.0066743722273474330 // TokyoJapan
+	};
+
+	/** 第二離心率の2乗 */
+	static final double[] ED2 = {
+			0.0067394967754789564, // GRS80
+			0.0067394967422764332, // WGS84
+			0.0067192187946599827 // TokyoJapan
+	};
+
+	/** 子午線弧長の係数(a(1-e^2)) */
+	static final double[] AE2 = {
+			6335439.3270838754, // GRS80
+			6335439.3272928195, // WGS84
+			6334832.0325459037 // TokyoJapan
+	};
+
+	/** 子午線弧長の級数の係数(A～I) */
+	static final double[][] MERIDIAN = {
+			// GRS80
+			{ 1.0050525018131464, 0.0050631086223268769, 0.000010627590327600439,
+					2.0820407158512162E-8, 3.9332304700358793E-11, 7.2652361691250648E-14,
+					1.3216533689231349E-16, 2.3767573536994708E-19, 4.1094197402691905E-22 },
+			// WGS84
+			{ 1.0050525017882657, 0.0050631085973415202, 0.000010627590222973696,
+					2.0820406851309945E-8, 3.9332303926892938E-11, 7.2652359905823263E-14,
+					1.3216533299542995E-16, 2.3767572719617849E-19, 4.1094195793910684E-22 },
+			// TokyoJapan
+			{ 1.0050373060455771, 0.0050478492379003740, 0.000010563786882289163,
+					2.0633349718898441E-8, 3.8862041440560405E-11, 7.1568455798679079E-14,
+					1.2980313736224446E-16, 2.3272838914621461E-19, 4.0121853723573919E-22 }
+	};
+
+	/** 原点の緯度[radian] */
+	static final double[] PHI0 = {
+			0.57595865315812877, // System01
+			0.57595865315812877, // System02
+			0.62831853071795862, // System03
+			0.57595865315812877, // System04
+			0.62831853071795862, // System05
+			0.62831853071795862, // System06
+			0.62831853071795862, // System07
+			0.62831853071795862, // System08
+			0.62831853071795862, // System09
+			0.69813170079773179, // System10
+			0.76794487087750496, // System11
+			0.76794487087750496, // System12
+			0.76794487087750496, // System13
+			0.45378560551852570, // System14
+			0.45378560551852570, // System15
+			0.45378560551852570, // System16
+			0.45378560551852570, // System17
+			0.34906585039886590, // System18
+			0.45378560551852570 // System19
+	};
+
+	/** 原点の経度[radian] */
+	static final double[] LAMDA0 = {
+			2.2602013813326569, // System01
+			2.2863813201125716, // System02
+			2.3067434947191718, // System03
+			2.3300145514124297, // System04
+			2.3445589618457161, // System05
+			2.3736477827122884, // System06
+			2.3940099573188887, // System07
+			2.4172810140121466, // System08
+			2.4405520707054045, // System09
+			2.4580053632253476, // System10
+			2.4478242759220472, // System11
+			2.4827308609619338, // System12
+			2.5176374460018205, // System13
+			2.4783675378319479, // System14
+			2.2252947962927703, // System15
+			2.1642082724729685, // System16
+			2.2863813201125716, // System17
+			2.3736477827122884, // System18
+			2.6878070480712677 // System19
+	};
+
+	/** 原点の子午線弧長[m] */
+	static final double[][] S0 = {
+			// GRS80
+			{ 3652748.0430750931, 3652748.0430750931, 3985542.6702962494, 3652748.0430750931,
+					3985542.6702962494, 3985542.6702962494, 3985542.6702962494, 3985542.6702962494,
+					3985542.6702962494, 4429529.0302365888, 4873822.3695961591, 4873822.3695961591,
+					4873822.3695961591, 2876834.5725183729, 2876834.5725183729, 2876834.5725183729,
+					2876834.5725183729, 2212366.2541029812, 2876834.5725183729 },
+			// WGS84
+			{ 3652748.0431769537, 3652748.0431769537, 3985542.6704038274, 3652748.0431769537,
+					3985542.6704038274, 3985542.6704038274, 3985542.6704038274, 3985542.6704038274,
+					3985542.6704038274, 4429529.0303505156, 4873822.3697149334, 4873822.3697149334,
+					4873822.3697149334, 2876834.5726039293, 2876834.5726039293, 2876834.5726039293,
+					2876834.5726039293, 2212366.2541716332, 2876834.5726039293 },
+			// TokyoJapan
+			{ 3652386.5383452810, 3652386.5383452810, 3985146.0533183594, 3652386.5383452810,
+					3985146.0533183594, 3985146.0533183594, 3985146.0533183594, 3985146.0533183594,
+					3985146.0533183594, 4429084.7898464026, 4873329.5526233763, 4873329.5526233763,
+					4873329.5526233763, 2876553.1147635230, 2876553.1147635230, 2876553.1147635230,
+					2876553.1147635230, 2212151.5502923476, 2876553.1147635230 }
+	};
+
+	/**
+	 * コンストラクタ
+	 */
+	private SurveyConstants() {
+
+	}
+}
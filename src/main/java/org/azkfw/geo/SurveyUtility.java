@@ -5,7 +5,7 @@ package org.azkfw.geo;
  * 
  * @author N.Kawakita
  */
-public class SurveyUtility {
+public class SurveyUtility implements PlaneConverter {
 
 	/** 測地系 */
 	private SokuchiKei sokuchiKei;
@@ -25,6 +25,24 @@ public class SurveyUtility {
 		this.sokuchiKei = sokuchiKei;
 	}
 
+	/**
+	 * 測地系を取得する。
+	 * 
+	 * @return 測地系
+	 */
+	public SokuchiKei getSokuchiKei() {
+		return sokuchiKei;
+	}
+
+	/**
+	 * 原点における縮尺係数を取得する。
+	 * 
+	 * @return 縮尺係数
+	 */
+	public double getScaleFactor() {
+		return sbyS;
+	}
+
 	/**
 	 * 緯度、経度から平面直角座標を求める
 	 * 
@@ -39,22 +57,120 @@ public class SurveyUtility {
 		return bl2xy(new Coordinate(lat, lon), zone);
 	}
 
+	/**
+	 * 緯度、経度から平面直角座標を求める
+	 * <p>
+	 * 結果は引数の配列へ格納するため、インスタンスの生成を行わない。
+	 * </p>
+	 * 
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param zone 系番号
+	 * @param xy 結果格納先(x, y)、要素数が4以上の場合は(x, y, 真北方向角[degree], 縮尺係数)
+	 */
+	public void bl2xy(final double latitude, final double longitude, final Zone zone, final double[] xy) {
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
+
+		if (4 <= xy.length) {
+			bl2xy(Math.toRadians(latitude), Math.toRadians(longitude), lamda0, s0, xy, 0, xy, 1, xy, 2, xy, 3);
+		} else {
+			bl2xy(Math.toRadians(latitude), Math.toRadians(longitude), lamda0, s0, xy, 0, xy, 1, null, 0, null, 0);
+		}
+	}
+
+	/**
+	 * 緯度、経度の配列から平面直角座標を求める
+	 * 
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 */
+	public void bl2xy(final double[] latitudes, final double[] longitudes, final Zone zone, final double[] xs, final double[] ys) {
+		bl2xy(latitudes, longitudes, 0, latitudes.length, zone, xs, ys);
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲から平面直角座標を求める
+	 * 
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 */
+	@Override
+	public void bl2xy(final double[] latitudes, final double[] longitudes, final int start, final int end, final Zone zone, final double[] xs,
+			final double[] ys) {
+		bl2xy(latitudes, longitudes, start, end, zone, xs, ys, null, null);
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲から平面直角座標、真北方向角、縮尺係数を求める
+	 * 
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param xs 結果格納先(x)
+	 * @param ys 結果格納先(y)
+	 * @param gridConvs 結果格納先(真北方向角[degree])、不要な場合は<code>null</code>
+	 * @param scaleFactors 結果格納先(縮尺係数)、不要な場合は<code>null</code>
+	 */
+	public void bl2xy(final double[] latitudes, final double[] longitudes, final int start, final int end, final Zone zone, final double[] xs,
+			final double[] ys, final double[] gridConvs, final double[] scaleFactors) {
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
+
+		for (int i = start; i < end; i++) {
+			bl2xy(Math.toRadians(latitudes[i]), Math.toRadians(longitudes[i]), lamda0, s0, xs, i, ys, i, gridConvs, i, scaleFactors, i);
+		}
+	}
+
 	private double[] bl2xy(final Coordinate coordinate, final Zone zone) {
-		double phi0 = zone.getLatitude().toRadian();
-		double lamda0 = zone.getLongitude().toRadian();
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
 		double phi1 = coordinate.getLatitude().toRadian();
 		double lamda1 = coordinate.getLongitude().toRadian();
 
-		double e = Math.sqrt(2.0 * sokuchiKei.F - 1.0) / sokuchiKei.F;
-		double s0 = kocyou(phi0, e);
-		double s1 = kocyou(phi1, e);
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
+
+		double[] xy = new double[2];
+		bl2xy(phi1, lamda1, lamda0, s0, xy, 0, xy, 1, null, 0, null, 0);
+		return xy;
+	}
+
+	/**
+	 * 緯度、経度[radian]から平面直角座標を求める
+	 * 
+	 * @param phi1 緯度[radian]
+	 * @param lamda1 経度[radian]
+	 * @param lamda0 原点の経度[radian]
+	 * @param s0 原点の子午線弧長
+	 * @param xs 結果格納先(x)
+	 * @param xi 結果格納位置(x)
+	 * @param ys 結果格納先(y)
+	 * @param yi 結果格納位置(y)
+	 * @param gs 結果格納先(真北方向角[degree])、不要な場合は<code>null</code>
+	 * @param gi 結果格納位置(真北方向角)
+	 * @param ms 結果格納先(縮尺係数)、不要な場合は<code>null</code>
+	 * @param mi 結果格納位置(縮尺係数)
+	 */
+	private void bl2xy(final double phi1, final double lamda1, final double lamda0, final double s0, final double[] xs, final int xi,
+			final double[] ys, final int yi, final double[] gs, final int gi, final double[] ms, final int mi) {
+		int k = sokuchiKei.ordinal();
+		double s1 = kocyou(phi1);
 
-		double ut = sokuchiKei.a / Math.sqrt(1.0 - Math.pow(e, 2.0) * Math.pow(Math.sin(phi1), 2.0));
+		double ut = sokuchiKei.a / Math.sqrt(1.0 - SurveyConstants.E2[k] * Math.pow(Math.sin(phi1), 2.0));
 		double conp = Math.cos(phi1);
 		double t1 = Math.tan(phi1);
 
 		double dlamda = lamda1 - lamda0;
-		double eta2 = (Math.pow(e, 2.0) / (1.0 - Math.pow(e, 2.0))) * Math.pow(conp, 2.0);
+		double eta2 = SurveyConstants.ED2[k] * Math.pow(conp, 2.0);
 
 		double x1 = 5.0 - Math.pow(t1, 2.0) + 9.0 * eta2 + 4.0 * Math.pow(eta2, 2.0);
 		double x2 = -61.0 + 58.0 * Math.pow(t1, 2.0) - Math.pow(t1, 4.0) - 270 * eta2 + 330.0 * Math.pow(t1, 2.0) * eta2;
@@ -73,17 +189,219 @@ public class SurveyUtility {
 				* Math.pow(dlamda, 5.0) / 120.0 - ut * Math.pow(conp, 7.0) * y3 * Math.pow(dlamda, 7.0) / 5040.0)
 				* sbyS;
 
-		return new double[] { x, y };
+		xs[xi] = x;
+		ys[yi] = y;
+
+		// 真北方向角、縮尺係数(A = Δλcosφ)
+		double aa = dlamda * conp;
+		double aa2 = aa * aa;
+		double t2 = t1 * t1;
+		if (null != gs) {
+			double gamma = aa * t1 * (1.0 + aa2 * (1.0 + 3.0 * eta2 + 2.0 * eta2 * eta2) / 3.0 + aa2 * aa2 * (2.0 - t2) / 15.0);
+			gs[gi] = -Math.toDegrees(gamma);
+		}
+		if (null != ms) {
+			double ed2 = SurveyConstants.ED2[k];
+			ms[mi] = sbyS
+					* (1.0 + (1.0 + eta2) * aa2 / 2.0 + (5.0 - 4.0 * t2 + 42.0 * eta2 + 13.0 * eta2 * eta2 - 28.0 * ed2) * aa2 * aa2 / 24.0 + (61.0
+							- 148.0 * t2 + 16.0 * t2 * t2)
+							* aa2 * aa2 * aa2 / 720.0);
+		}
 	}
 
 	public Coordinate xy2bl(final double x, final double y, final Zone zone) {
-		double phi0 = zone.getLatitude().toRadian();
-		double lamda0 = zone.getLongitude().toRadian();
+		double phi0 = SurveyConstants.PHI0[zone.ordinal()];
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
 
-		double e = Math.sqrt(2.0 * sokuchiKei.F - 1.0) / sokuchiKei.F;
-		double e2j = Math.pow(e, 2.0);
+		double[] bl = new double[2];
+		xy2bl(x, y, phi0, lamda0, s0, bl, 0, bl, 1, null, 0, null, 0);
 
-		double phi1 = suisen(x, phi0, e);
+		Coordinate coordinate = new Coordinate(DMS.parseRadian(bl[0]), DMS.parseRadian(bl[1]));
+		return coordinate;
+	}
+
+	/**
+	 * 平面直角座標から緯度、経度を求める
+	 * <p>
+	 * 結果は引数の配列へ格納するため、インスタンスの生成を行わない。
+	 * </p>
+	 * 
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 * @param zone 系番号
+	 * @param bl 結果格納先(緯度[degree], 経度[degree])、要素数が4以上の場合は(緯度, 経度, 真北方向角[degree], 縮尺係数)
+	 */
+	public void xy2bl(final double x, final double y, final Zone zone, final double[] bl) {
+		double phi0 = SurveyConstants.PHI0[zone.ordinal()];
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
+
+		if (4 <= bl.length) {
+			xy2bl(x, y, phi0, lamda0, s0, bl, 0, bl, 1, bl, 2, bl, 3);
+		} else {
+			xy2bl(x, y, phi0, lamda0, s0, bl, 0, bl, 1, null, 0, null, 0);
+		}
+		bl[0] = Math.toDegrees(bl[0]);
+		bl[1] = Math.toDegrees(bl[1]);
+	}
+
+	/**
+	 * 平面直角座標の配列から緯度、経度を求める
+	 * 
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	public void xy2bl(final double[] xs, final double[] ys, final Zone zone, final double[] latitudes, final double[] longitudes) {
+		xy2bl(xs, ys, 0, xs.length, zone, latitudes, longitudes);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲から緯度、経度を求める
+	 * 
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	@Override
+	public void xy2bl(final double[] xs, final double[] ys, final int start, final int end, final Zone zone, final double[] latitudes,
+			final double[] longitudes) {
+		xy2bl(xs, ys, start, end, zone, latitudes, longitudes, null, null);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲から緯度、経度、真北方向角、縮尺係数を求める
+	 * 
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 * @param gridConvs 結果格納先(真北方向角[degree])、不要な場合は<code>null</code>
+	 * @param scaleFactors 結果格納先(縮尺係数)、不要な場合は<code>null</code>
+	 */
+	public void xy2bl(final double[] xs, final double[] ys, final int start, final int end, final Zone zone, final double[] latitudes,
+			final double[] longitudes, final double[] gridConvs, final double[] scaleFactors) {
+		double phi0 = SurveyConstants.PHI0[zone.ordinal()];
+		double lamda0 = SurveyConstants.LAMDA0[zone.ordinal()];
+		double s0 = SurveyConstants.S0[sokuchiKei.ordinal()][zone.ordinal()];
+
+		for (int i = start; i < end; i++) {
+			xy2bl(xs[i], ys[i], phi0, lamda0, s0, latitudes, i, longitudes, i, gridConvs, i, scaleFactors, i);
+			latitudes[i] = Math.toDegrees(latitudes[i]);
+			longitudes[i] = Math.toDegrees(longitudes[i]);
+		}
+	}
+
+	/**
+	 * 平面直角座標を別の系の平面直角座標へ変換する
+	 * <p>
+	 * 緯度、経度はラジアンのまま受け渡し、{@link DMS}、{@link Coordinate}を経由しない。
+	 * </p>
+	 * 
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 * @param from 変換元の系番号
+	 * @param to 変換先の系番号
+	 * @param xy 結果格納先(x, y)
+	 */
+	public void xy2xy(final double x, final double y, final Zone from, final Zone to, final double[] xy) {
+		if (from == to) {
+			xy[0] = x;
+			xy[1] = y;
+			return;
+		}
+
+		int k = sokuchiKei.ordinal();
+		double fromPhi0 = SurveyConstants.PHI0[from.ordinal()];
+		double fromLamda0 = SurveyConstants.LAMDA0[from.ordinal()];
+		double toLamda0 = SurveyConstants.LAMDA0[to.ordinal()];
+
+		xy2bl(x, y, fromPhi0, fromLamda0, SurveyConstants.S0[k][from.ordinal()], xy, 0, xy, 1, null, 0, null, 0);
+		bl2xy(xy[0], xy[1], toLamda0, SurveyConstants.S0[k][to.ordinal()], xy, 0, xy, 1, null, 0, null, 0);
+	}
+
+	/**
+	 * 平面直角座標の配列を別の系の平面直角座標へ変換する
+	 * 
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param from 変換元の系番号
+	 * @param to 変換先の系番号
+	 * @param toXs 結果格納先(x)、<code>xs</code>と同じ配列を指定可
+	 * @param toYs 結果格納先(y)、<code>ys</code>と同じ配列を指定可
+	 */
+	public void xy2xy(final double[] xs, final double[] ys, final Zone from, final Zone to, final double[] toXs, final double[] toYs) {
+		xy2xy(xs, ys, 0, xs.length, from, to, toXs, toYs);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲を別の系の平面直角座標へ変換する
+	 * 
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param from 変換元の系番号
+	 * @param to 変換先の系番号
+	 * @param toXs 結果格納先(x)、<code>xs</code>と同じ配列を指定可
+	 * @param toYs 結果格納先(y)、<code>ys</code>と同じ配列を指定可
+	 */
+	public void xy2xy(final double[] xs, final double[] ys, final int start, final int end, final Zone from, final Zone to, final double[] toXs,
+			final double[] toYs) {
+		if (from == to) {
+			System.arraycopy(xs, start, toXs, start, end - start);
+			System.arraycopy(ys, start, toYs, start, end - start);
+			return;
+		}
+
+		int k = sokuchiKei.ordinal();
+		double fromPhi0 = SurveyConstants.PHI0[from.ordinal()];
+		double fromLamda0 = SurveyConstants.LAMDA0[from.ordinal()];
+		double fromS0 = SurveyConstants.S0[k][from.ordinal()];
+
+		double toLamda0 = SurveyConstants.LAMDA0[to.ordinal()];
+		double toS0 = SurveyConstants.S0[k][to.ordinal()];
+
+		for (int i = start; i < end; i++) {
+			// 緯度、経度[radian]を結果格納先へ一時的に格納する
+			xy2bl(xs[i], ys[i], fromPhi0, fromLamda0, fromS0, toXs, i, toYs, i, null, 0, null, 0);
+			bl2xy(toXs[i], toYs[i], toLamda0, toS0, toXs, i, toYs, i, null, 0, null, 0);
+		}
+	}
+
+	/**
+	 * 平面直角座標から緯度、経度[radian]を求める
+	 * 
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 * @param phi0 原点の緯度[radian]
+	 * @param lamda0 原点の経度[radian]
+	 * @param s0 原点の子午線弧長
+	 * @param bs 結果格納先(緯度[radian])
+	 * @param bi 結果格納位置(緯度)
+	 * @param ls 結果格納先(経度[radian])
+	 * @param li 結果格納位置(経度)
+	 * @param gs 結果格納先(真北方向角[degree])、不要な場合は<code>null</code>
+	 * @param gi 結果格納位置(真北方向角)
+	 * @param ms 結果格納先(縮尺係数)、不要な場合は<code>null</code>
+	 * @param mi 結果格納位置(縮尺係数)
+	 */
+	private void xy2bl(final double x, final double y, final double phi0, final double lamda0, final double s0, final double[] bs,
+			final int bi, final double[] ls, final int li, final double[] gs, final int gi, final double[] ms, final int mi) {
+		int k = sokuchiKei.ordinal();
+		double e2j = SurveyConstants.E2[k];
+
+		double phi1 = suisen(x, phi0, s0);
 
 		double ut = sokuchiKei.a / Math.sqrt(1.0 - e2j * Math.pow(Math.sin(phi1), 2.0));
 		double ut2j = Math.pow(ut, 2.0);
@@ -97,7 +415,7 @@ public class SurveyUtility {
 		double t6j = Math.pow(t, 6.0);
 
 		double conp = Math.cos(phi1);
-		double eta2 = (e2j / (1.0 - e2j)) * Math.pow(conp, 2.0);
+		double eta2 = SurveyConstants.ED2[k] * Math.pow(conp, 2.0);
 
 		double yy = y / sbyS;
 
@@ -124,105 +442,54 @@ public class SurveyUtility {
 		lamdar -= (lamdar4 / (5040.0 * ut6j * lamdar1)) * Math.pow(yy, 7.0);
 		lamdar += lamda0;
 
-		Coordinate coordinate = new Coordinate(DMS.parseRadian(phir), DMS.parseRadian(lamdar));
-		return coordinate;
+		bs[bi] = phir;
+		ls[li] = lamdar;
+
+		// 真北方向角、縮尺係数(u = y / N1)
+		if (null != gs) {
+			double u = yy / ut;
+			double u2 = u * u;
+			double gamma = u * t * (1.0 - u2 * (1.0 + t2j - eta2 - 2.0 * eta2 * eta2) / 3.0 + u2 * u2 * (2.0 + 5.0 * t2j + 3.0 * t4j) / 15.0);
+			gs[gi] = -Math.toDegrees(gamma);
+		}
+		if (null != ms) {
+			// R^2 = MN = (1 - e^2)N^4 / a^2
+			double r2 = (1.0 - e2j) * ut4j / (sokuchiKei.a * sokuchiKei.a);
+			double q = Math.pow(yy, 2.0) / r2;
+			ms[mi] = sbyS * (1.0 + q / 2.0 + q * q / 24.0);
+		}
 	}
 
-	private double kocyou(final double ido, final double aE) {
-		double e2j = Math.pow(aE, 2.0);
-		double e4j = Math.pow(aE, 4.0);
-		double e6j = Math.pow(aE, 6.0);
-		double e8j = Math.pow(aE, 8.0);
-		double e10j = Math.pow(aE, 10.0);
-		double e12j = Math.pow(aE, 12.0);
-		double e14j = Math.pow(aE, 14.0);
-		double e16j = Math.pow(aE, 16.0);
-
-		double a1 = 1.0;
-		double a2 = 3.0 / 4.0 * e2j;
-		double a3 = 45.0 / 64.0 * e4j;
-		double a4 = 175.0 / 256.0 * e6j;
-		double a5 = 11025.0 / 16384.0 * e8j;
-		double a6 = 43659.0 / 65536.0 * e10j;
-		double a7 = 693693.0 / 1048576.0 * e12j;
-		double a8 = 19324305.0 / 29360128.0 * e14j;
-		double a9 = 4927697775.0 / 7516192768.0 * e16j;
-		double a = a1 + a2 + a3 + a4 + a5 + a6 + a7 + a8 + a9;
-
-		double b1 = 3.0 / 4.0 * e2j;
-		double b2 = 15.0 / 16.0 * e4j;
-		double b3 = 525.0 / 512.0 * e6j;
-		double b4 = 2205.0 / 2048.0 * e8j;
-		double b5 = 72765.0 / 65536.0 * e10j;
-		double b6 = 297297.0 / 262144.0 * e12j;
-		double b7 = 135270135.0 / 117440512.0 * e14j;
-		double b8 = 547521975.0 / 469762048.0 * e16j;
-		double b = b1 + b2 + b3 + b4 + b5 + b6 + b7 + b8;
-
-		double c1 = 15.0 / 64.0 * e4j;
-		double c2 = 105.0 / 256.0 * e6j;
-		double c3 = 2205.0 / 4096.0 * e8j;
-		double c4 = 10395.0 / 16384.0 * e10j;
-		double c5 = 1486485.0 / 2097152.0 * e12j;
-		double c6 = 45090045.0 / 58720256.0 * e14j;
-		double c7 = 766530765.0 / 939524096.0 * e16j;
-		double c = c1 + c2 + c3 + c4 + c5 + c6 + c7;
-
-		double d1 = 35.0 / 512.0 * e6j;
-		double d2 = 315.0 / 2048.0 * e8j;
-		double d3 = 31185.0 / 131072.0 * e10j;
-		double d4 = 165165.0 / 524288.0 * e12j;
-		double d5 = 45090045.0 / 117440512.0 * e14j;
-		double d6 = 209053845.0 / 469762048.0 * e16j;
-		double d = d1 + d2 + d3 + d4 + d5 + d6;
-
-		double e1 = 315.0 / 16384.0 * e8j;
-		double e2 = 3465.0 / 65536.0 * e10j;
-		double e3 = 99099.0 / 1048576.0 * e12j;
-		double e4 = 4099095.0 / 29360128.0 * e14j;
-		double e5 = 348423075.0 / 1879048192.0 * e16j;
-		double e = e1 + e2 + e3 + e4 + e5;
-
-		double f1 = 693.0 / 131072 * e10j;
-		double f2 = 9009.0 / 524288.0 * e12j;
-		double f3 = 4099095.0 / 117440512.0 * e14j;
-		double f4 = 26801775.0 / 469762048.0 * e16j;
-		double f = f1 + f2 + f3 + f4;
-
-		double g1 = 3003 / 2097152.0 * e12j;
-		double g2 = 315315.0 / 58720256.0 * e14j;
-		double g3 = 11486475.0 / 939524096.0 * e16j;
-		double g = g1 + g2 + g3;
-
-		double h1 = 45045.0 / 117440512.0 * e14j;
-		double h2 = 765765.0 / 469762048.0 * e16j;
-		double h = h1 + h2;
-
-		double i1 = 765765.0 / 7516192768.0 * e16j;
-		double i = i1;
-
-		double sigosen = sokuchiKei.a
-				* (1.0 - e2j)
-				* (a * ido - b * Math.sin(ido * 2.0) / 2.0 + c * Math.sin(ido * 4.0) / 4.0 - d * Math.sin(ido * 6.0) / 6.0 + e * Math.sin(ido * 8.0)
-						/ 8.0 - f * Math.sin(ido * 10.0) / 10.0 + g * Math.sin(ido * 12.0) / 12.0 - h * Math.sin(ido * 14.0) / 14.0 + i
-						* Math.sin(ido * 16.0) / 16.0);
+	/**
+	 * 子午線弧長を求める
+	 * 
+	 * @param ido 緯度[radian]
+	 * @return 子午線弧長[m]
+	 */
+	private double kocyou(final double ido) {
+		int k = sokuchiKei.ordinal();
+		double[] m = SurveyConstants.MERIDIAN[k];
+
+		double sigosen = SurveyConstants.AE2[k]
+				* (m[0] * ido - m[1] * Math.sin(ido * 2.0) / 2.0 + m[2] * Math.sin(ido * 4.0) / 4.0 - m[3] * Math.sin(ido * 6.0) / 6.0 + m[4]
+						* Math.sin(ido * 8.0) / 8.0 - m[5] * Math.sin(ido * 10.0) / 10.0 + m[6] * Math.sin(ido * 12.0) / 12.0 - m[7]
+						* Math.sin(ido * 14.0) / 14.0 + m[8] * Math.sin(ido * 16.0) / 16.0);
 
 		return sigosen;
 	}
 
-	private double suisen(final double x, final double ido, final double aE) {
-		double s0 = kocyou(ido, aE);
+	private double suisen(final double x, final double ido, final double s0) {
 		double m = s0 + (x / sbyS);
 
 		double phin = ido;
 		double phi0 = phin;
-		double e2j = Math.pow(aE, 2.0);
+		double e2j = SurveyConstants.E2[sokuchiKei.ordinal()];
 
 		int cnt = 0;
 		while (true) {
 			cnt++;
 			phi0 = phin;
-			double sn = kocyou(phin, aE);
+			double sn = kocyou(phin);
 			double v1 = 2.0 * (sn - m) * Math.pow(1.0 - e2j * Math.pow(Math.sin(phin), 2.0), 1.5);
 			double v2 = 3.0 * e2j * (sn - m) * Math.sin(phin) * Math.cos(phin) * Math.sqrt(1.0 - e2j * Math.pow(Math.sin(phin), 2.0)) - 2.0
 					* sokuchiKei.a * (1.0 - e2j);
@@ -0,0 +1,652 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.index;
+
+import java.util.concurrent.ExecutorService;
+
+import org.azkfw.geo.ParallelUtility;
+import org.azkfw.geo.ParallelUtility.RangeTask;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、平面直角座標上の点群に対する空間インデックス(暗黙的KD木)です。
+ * <p>
+ * 点群は系の平面直角座標へ投影した上で、プリミティブ配列のみで木構造を表現する。
+ * 範囲[lo, hi)の中央要素を節とし、深さに応じてX軸・Y軸を交互に分割軸とする。
+ * </p>
+ * <p>
+ * 検索は{@link Searcher}を通して行う。{@link Searcher}は作業領域を保持するため、
+ * スレッド毎に生成して再利用することで検索時のインスタンス生成を行わない。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class KdTreeIndex {
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+	/** 系番号 */
+	private final Zone zone;
+
+	/** X座標[m](木の順序) */
+	private final double[] xs;
+	/** Y座標[m](木の順序) */
+	private final double[] ys;
+	/** 元の配列の位置(木の順序) */
+	private final int[] ids;
+
+	/** 木の深さ */
+	private final int depth;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aXs X座標[m]
+	 * @param aYs Y座標[m]
+	 */
+	private KdTreeIndex(final SurveyUtility aSurvey, final Zone aZone, final double[] aXs, final double[] aYs) {
+		survey = aSurvey;
+		zone = aZone;
+		xs = aXs;
+		ys = aYs;
+		ids = new int[aXs.length];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = i;
+		}
+
+		int d = 0;
+		while ((1L << d) <= xs.length) {
+			d++;
+		}
+		depth = d;
+
+		build(0, xs.length, 0);
+	}
+
+	/**
+	 * 緯度、経度の配列からインデックスを構築する。
+	 *
+	 * @param survey 測量ユーティリティ
+	 * @param zone 系番号
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @return インデックス
+	 */
+	public static KdTreeIndex build(final SurveyUtility survey, final Zone zone, final double[] latitudes, final double[] longitudes) {
+		return build(survey, zone, latitudes, longitudes, null);
+	}
+
+	/**
+	 * 緯度、経度の配列からインデックスを構築する。
+	 * <p>
+	 * 平面直角座標への投影はエグゼキュータで並列に行う。
+	 * </p>
+	 *
+	 * @param survey 測量ユーティリティ
+	 * @param zone 系番号
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 * @return インデックス
+	 */
+	public static KdTreeIndex build(final SurveyUtility survey, final Zone zone, final double[] latitudes, final double[] longitudes,
+			final ExecutorService executor) {
+		if (latitudes.length != longitudes.length) {
+			throw new IllegalArgumentException("latitudes and longitudes must have the same length.");
+		}
+
+		final double[] xs = new double[latitudes.length];
+		final double[] ys = new double[latitudes.length];
+		ParallelUtility.execute(executor, latitudes.length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				survey.bl2xy(latitudes, longitudes, start, end, zone, xs, ys);
+			}
+		});
+		return new KdTreeIndex(survey, zone, xs, ys);
+	}
+
+	/**
+	 * 平面直角座標の配列からインデックスを構築する。
+	 * <p>
+	 * 引数の配列は複製して使用する。
+	 * </p>
+	 *
+	 * @param survey 測量ユーティリティ
+	 * @param zone 系番号
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @return インデックス
+	 */
+	public static KdTreeIndex buildXY(final SurveyUtility survey, final Zone zone, final double[] xs, final double[] ys) {
+		if (xs.length != ys.length) {
+			throw new IllegalArgumentException("xs and ys must have the same length.");
+		}
+		return new KdTreeIndex(survey, zone, xs.clone(), ys.clone());
+	}
+
+	/**
+	 * 系番号を取得する。
+	 *
+	 * @return 系番号
+	 */
+	public Zone getZone() {
+		return zone;
+	}
+
+	/**
+	 * 点の数を取得する。
+	 *
+	 * @return 点の数
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	/**
+	 * 検索オブジェクトを生成する。
+	 * <p>
+	 * 検索オブジェクトはスレッドセーフではないため、スレッド毎に生成すること。
+	 * </p>
+	 *
+	 * @return 検索オブジェクト
+	 */
+	public Searcher newSearcher() {
+		return new Searcher();
+	}
+
+	/**
+	 * 最近傍点を検索する。
+	 * <p>
+	 * 呼び出し毎に検索オブジェクトを生成する。連続して検索する場合は{@link #newSearcher()}を使用すること。
+	 * </p>
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @return 元の配列の位置(点が存在しない場合、-1)
+	 */
+	public int nearest(final double latitude, final double longitude) {
+		return newSearcher().nearest(latitude, longitude);
+	}
+
+	/**
+	 * 最近傍点を一括で検索する。
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param results 結果格納先(元の配列の位置)
+	 * @param distances 結果格納先(距離[m])、不要な場合は<code>null</code>
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 */
+	public void nearest(final double[] latitudes, final double[] longitudes, final int[] results, final double[] distances,
+			final ExecutorService executor) {
+		ParallelUtility.execute(executor, latitudes.length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				Searcher searcher = newSearcher();
+				for (int i = start; i < end; i++) {
+					results[i] = searcher.nearest(latitudes[i], longitudes[i]);
+					if (null != distances) {
+						distances[i] = searcher.getDistance();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * k近傍点を一括で検索する。
+	 * <p>
+	 * i番目の検索結果は結果格納先の[i * k, i * k + 検索結果数)に距離の昇順に格納する。
+	 * </p>
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param k 検索数
+	 * @param results 結果格納先(元の配列の位置)、要素数は<code>latitudes.length * k</code>以上
+	 * @param distances 結果格納先(距離[m])、不要な場合は<code>null</code>
+	 * @param counts 結果格納先(検索結果数)、不要な場合は<code>null</code>
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 */
+	public void nearest(final double[] latitudes, final double[] longitudes, final int k, final int[] results, final double[] distances,
+			final int[] counts, final ExecutorService executor) {
+		if (0 >= k) {
+			throw new IllegalArgumentException("k must be positive.");
+		}
+		ParallelUtility.execute(executor, latitudes.length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				Searcher searcher = newSearcher();
+				for (int i = start; i < end; i++) {
+					int count = searcher.nearest(latitudes[i], longitudes[i], k, results, distances, i * k);
+					if (null != counts) {
+						counts[i] = count;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * 指定半径内の点を一括で検索する。
+	 * <p>
+	 * 1回目の探索で件数を求め、2回目の探索で結果を格納する。
+	 * i番目の検索結果は戻り値の[offsets[i], offsets[i + 1])に格納する(順序は不定)。
+	 * </p>
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param radius 半径[m]
+	 * @param offsets 結果格納先(検索結果の開始位置)、要素数は<code>latitudes.length + 1</code>以上
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 * @return 検索結果(元の配列の位置)
+	 */
+	public int[] within(final double[] latitudes, final double[] longitudes, final double radius, final int[] offsets,
+			final ExecutorService executor) {
+		final int length = latitudes.length;
+		final double[] qxs = new double[length];
+		final double[] qys = new double[length];
+		ParallelUtility.execute(executor, length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				survey.bl2xy(latitudes, longitudes, start, end, zone, qxs, qys);
+				Searcher searcher = newSearcher();
+				for (int i = start; i < end; i++) {
+					offsets[i + 1] = searcher.withinXY(qxs[i], qys[i], radius, null, 0, 0);
+				}
+			}
+		});
+
+		offsets[0] = 0;
+		for (int i = 0; i < length; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		final int[] results = new int[offsets[length]];
+		ParallelUtility.execute(executor, length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				Searcher searcher = newSearcher();
+				for (int i = start; i < end; i++) {
+					searcher.withinXY(qxs[i], qys[i], radius, results, offsets[i], offsets[i + 1] - offsets[i]);
+				}
+			}
+		});
+		return results;
+	}
+
+	private void build(final int lo, final int hi, final int level) {
+		if (hi - lo <= 1) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, (0 == (level & 1)) ? xs : ys);
+		build(lo, mid, level + 1);
+		build(mid + 1, hi, level + 1);
+	}
+
+	private void select(final int aLeft, final int aRight, final int k, final double[] keys) {
+		int left = aLeft;
+		int right = aRight;
+		while (right > left) {
+			double pivot = keys[(left + right) >>> 1];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (keys[i] < pivot) {
+					i++;
+				}
+				while (keys[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				break;
+			}
+		}
+	}
+
+	private void swap(final int i, final int j) {
+		double x = xs[i];
+		xs[i] = xs[j];
+		xs[j] = x;
+		double y = ys[i];
+		ys[i] = ys[j];
+		ys[j] = y;
+		int id = ids[i];
+		ids[i] = ids[j];
+		ids[j] = id;
+	}
+
+	/**
+	 * このクラスは、インデックスの検索を行うクラスです。
+	 * <p>
+	 * 作業領域を保持するため、スレッドセーフではありません。
+	 * </p>
+	 *
+	 * @author kawakicchi
+	 */
+	public final class Searcher {
+
+		/** 投影結果 */
+		private final double[] xy = new double[2];
+
+		/** スタック(開始位置) */
+		private final int[] stackLo;
+		/** スタック(終了位置) */
+		private final int[] stackHi;
+		/** スタック(深さ) */
+		private final int[] stackLevel;
+		/** スタック(分割面までの距離の二乗) */
+		private final double[] stackBound;
+
+		/** ヒープ(位置) */
+		private int[] heapIds = new int[16];
+		/** ヒープ(距離の二乗) */
+		private double[] heapDists = new double[16];
+		/** ヒープの要素数 */
+		private int heapSize;
+
+		/** 直前の最近傍検索の距離[m] */
+		private double distance;
+
+		/**
+		 * コンストラクタ
+		 */
+		private Searcher() {
+			int capacity = depth + 2;
+			stackLo = new int[capacity];
+			stackHi = new int[capacity];
+			stackLevel = new int[capacity];
+			stackBound = new double[capacity];
+		}
+
+		/**
+		 * 直前の最近傍検索の距離を取得する。
+		 *
+		 * @return 距離[m](点が存在しない場合、{@link Double#NaN})
+		 */
+		public double getDistance() {
+			return distance;
+		}
+
+		/**
+		 * 最近傍点を検索する。
+		 *
+		 * @param latitude 緯度[degree]
+		 * @param longitude 経度[degree]
+		 * @return 元の配列の位置(点が存在しない場合、-1)
+		 */
+		public int nearest(final double latitude, final double longitude) {
+			survey.bl2xy(latitude, longitude, zone, xy);
+			return nearestXY(xy[0], xy[1]);
+		}
+
+		/**
+		 * 最近傍点を検索する。
+		 *
+		 * @param x X座標[m]
+		 * @param y Y座標[m]
+		 * @return 元の配列の位置(点が存在しない場合、-1)
+		 */
+		public int nearestXY(final double x, final double y) {
+			heapSize = 0;
+			search(x, y, 1, Double.POSITIVE_INFINITY, null, 0, 0);
+			if (0 == heapSize) {
+				distance = Double.NaN;
+				return -1;
+			}
+			distance = Math.sqrt(heapDists[0]);
+			return ids[heapIds[0]];
+		}
+
+		/**
+		 * k近傍点を検索する。
+		 * <p>
+		 * 結果は距離の昇順に格納する。
+		 * </p>
+		 *
+		 * @param latitude 緯度[degree]
+		 * @param longitude 経度[degree]
+		 * @param k 検索数
+		 * @param results 結果格納先(元の配列の位置)
+		 * @param distances 結果格納先(距離[m])、不要な場合は<code>null</code>
+		 * @return 検索結果数
+		 */
+		public int nearest(final double latitude, final double longitude, final int k, final int[] results, final double[] distances) {
+			return nearest(latitude, longitude, k, results, distances, 0);
+		}
+
+		private int nearest(final double latitude, final double longitude, final int k, final int[] results, final double[] distances,
+				final int offset) {
+			survey.bl2xy(latitude, longitude, zone, xy);
+			return nearestXY(xy[0], xy[1], k, results, distances, offset);
+		}
+
+		/**
+		 * k近傍点を検索する。
+		 * <p>
+		 * 結果は距離の昇順に格納する。
+		 * </p>
+		 *
+		 * @param x X座標[m]
+		 * @param y Y座標[m]
+		 * @param k 検索数
+		 * @param results 結果格納先(元の配列の位置)
+		 * @param distances 結果格納先(距離[m])、不要な場合は<code>null</code>
+		 * @return 検索結果数
+		 */
+		public int nearestXY(final double x, final double y, final int k, final int[] results, final double[] distances) {
+			return nearestXY(x, y, k, results, distances, 0);
+		}
+
+		private int nearestXY(final double x, final double y, final int k, final int[] results, final double[] distances, final int offset) {
+			if (0 >= k) {
+				return 0;
+			}
+			if (heapIds.length < k) {
+				heapIds = new int[k];
+				heapDists = new double[k];
+			}
+			heapSize = 0;
+			search(x, y, k, Double.POSITIVE_INFINITY, null, 0, 0);
+
+			int count = heapSize;
+			for (int i = offset + count - 1; i >= offset; i--) {
+				results[i] = ids[heapIds[0]];
+				if (null != distances) {
+					distances[i] = Math.sqrt(heapDists[0]);
+				}
+				pop();
+			}
+			return count;
+		}
+
+		/**
+		 * 指定半径内の点を検索する。
+		 * <p>
+		 * 結果の順序は不定。結果格納先の長さを超えた分は格納しないが、戻り値には含める。
+		 * </p>
+		 *
+		 * @param latitude 緯度[degree]
+		 * @param longitude 経度[degree]
+		 * @param radius 半径[m]
+		 * @param results 結果格納先(元の配列の位置)
+		 * @return 半径内の点の数
+		 */
+		public int within(final double latitude, final double longitude, final double radius, final int[] results) {
+			survey.bl2xy(latitude, longitude, zone, xy);
+			return withinXY(xy[0], xy[1], radius, results);
+		}
+
+		/**
+		 * 指定半径内の点を検索する。
+		 * <p>
+		 * 結果の順序は不定。結果格納先の長さを超えた分は格納しないが、戻り値には含める。
+		 * </p>
+		 *
+		 * @param x X座標[m]
+		 * @param y Y座標[m]
+		 * @param radius 半径[m]
+		 * @param results 結果格納先(元の配列の位置)
+		 * @return 半径内の点の数
+		 */
+		public int withinXY(final double x, final double y, final double radius, final int[] results) {
+			return withinXY(x, y, radius, results, 0, results.length);
+		}
+
+		private int withinXY(final double x, final double y, final double radius, final int[] results, final int offset, final int capacity) {
+			heapSize = 0;
+			return search(x, y, 0, radius * radius, results, offset, capacity);
+		}
+
+		/**
+		 * 木を探索する。
+		 *
+		 * @param x X座標[m]
+		 * @param y Y座標[m]
+		 * @param k 近傍検索数(範囲検索の場合、0)
+		 * @param limit 範囲検索の距離の二乗
+		 * @param results 範囲検索の結果格納先
+		 * @param offset 範囲検索の結果格納先の開始位置
+		 * @param capacity 範囲検索の結果格納数の上限
+		 * @return 範囲検索の結果数
+		 */
+		private int search(final double x, final double y, final int k, final double limit, final int[] results, final int offset,
+				final int capacity) {
+			int found = 0;
+			int sp = 0;
+			stackLo[sp] = 0;
+			stackHi[sp] = xs.length;
+			stackLevel[sp] = 0;
+			stackBound[sp] = 0.0;
+			sp++;
+
+			while (0 < sp) {
+				sp--;
+				int lo = stackLo[sp];
+				int hi = stackHi[sp];
+				int level = stackLevel[sp];
+				double bound = stackBound[sp];
+
+				double worst = (0 == k) ? limit : ((heapSize < k) ? Double.POSITIVE_INFINITY : heapDists[0]);
+				if (lo >= hi || bound > worst) {
+					continue;
+				}
+
+				int mid = (lo + hi) >>> 1;
+				double dx = x - xs[mid];
+				double dy = y - ys[mid];
+				double d2 = dx * dx + dy * dy;
+				if (0 == k) {
+					if (d2 <= limit) {
+						if (found < capacity) {
+							results[offset + found] = ids[mid];
+						}
+						found++;
+					}
+				} else {
+					offer(mid, d2, k);
+				}
+
+				double diff = (0 == (level & 1)) ? dx : dy;
+				// 遠い側を先に積み、近い側を先に探索する
+				if (diff < 0) {
+					sp = push(sp, mid + 1, hi, level + 1, diff * diff);
+					sp = push(sp, lo, mid, level + 1, 0.0);
+				} else {
+					sp = push(sp, lo, mid, level + 1, diff * diff);
+					sp = push(sp, mid + 1, hi, level + 1, 0.0);
+				}
+			}
+			return found;
+		}
+
+		private int push(final int sp, final int lo, final int hi, final int level, final double bound) {
+			if (lo >= hi) {
+				return sp;
+			}
+			stackLo[sp] = lo;
+			stackHi[sp] = hi;
+			stackLevel[sp] = level;
+			stackBound[sp] = bound;
+			return sp + 1;
+		}
+
+		private void offer(final int index, final double d2, final int k) {
+			if (heapSize < k) {
+				// sift up
+				int i = heapSize++;
+				while (0 < i) {
+					int parent = (i - 1) >>> 1;
+					if (heapDists[parent] >= d2) {
+						break;
+					}
+					heapIds[i] = heapIds[parent];
+					heapDists[i] = heapDists[parent];
+					i = parent;
+				}
+				heapIds[i] = index;
+				heapDists[i] = d2;
+			} else if (d2 < heapDists[0]) {
+				siftDown(index, d2);
+			}
+		}
+
+		private void pop() {
+			heapSize--;
+			if (0 < heapSize) {
+				siftDown(heapIds[heapSize], heapDists[heapSize]);
+			}
+		}
+
+		private void siftDown(final int index, final double d2) {
+			int i = 0;
+			int half = heapSize >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				int right = child + 1;
+				if (right < heapSize && heapDists[right] > heapDists[child]) {
+					child = right;
+				}
+				if (d2 >= heapDists[child]) {
+					break;
+				}
+				heapIds[i] = heapIds[child];
+				heapDists[i] = heapDists[child];
+				i = child;
+			}
+			heapIds[i] = index;
+			heapDists[i] = d2;
+		}
+	}
+}
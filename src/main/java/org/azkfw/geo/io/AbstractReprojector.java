@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.io;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、ジオメトリの座標を逐次変換するクラスの基底クラスです。
+ * <p>
+ * 座標の並びは(東方向, 北方向)とする。すなわち緯度経度は(経度, 緯度)、平面直角座標は(Y, X)となる。
+ * 座標はバッチサイズ単位でまとめて変換するため、保持する座標数はバッチサイズを超えない。
+ * </p>
+ * <p>
+ * 作業領域を保持するため、スレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public abstract class AbstractReprojector {
+
+	/** デフォルトのバッチサイズ */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	/**
+	 * この列挙型は、変換の方向を定義した列挙型です。
+	 *
+	 * @author kawakicchi
+	 */
+	public static enum Direction {
+		/** 緯度経度から平面直角座標へ */
+		BL2XY,
+		/** 平面直角座標から緯度経度へ */
+		XY2BL;
+	}
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+	/** 系番号 */
+	private final Zone zone;
+	/** 変換の方向 */
+	private final Direction direction;
+	/** バッチサイズ */
+	private final int batchSize;
+
+	/** 作業領域 */
+	private final double[] work1;
+	/** 作業領域 */
+	private final double[] work2;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aDirection 変換の方向
+	 * @param aBatchSize バッチサイズ
+	 */
+	protected AbstractReprojector(final SurveyUtility aSurvey, final Zone aZone, final Direction aDirection, final int aBatchSize) {
+		if (0 >= aBatchSize) {
+			throw new IllegalArgumentException("batchSize must be positive.");
+		}
+		survey = aSurvey;
+		zone = aZone;
+		direction = aDirection;
+		batchSize = aBatchSize;
+		work1 = new double[aBatchSize];
+		work2 = new double[aBatchSize];
+	}
+
+	/**
+	 * バッチサイズを取得する。
+	 *
+	 * @return バッチサイズ
+	 */
+	protected final int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * 座標をまとめて変換する。
+	 *
+	 * @param easts 東方向の座標(経度[degree]またはY[m])、変換結果で上書きする
+	 * @param norths 北方向の座標(緯度[degree]またはX[m])、変換結果で上書きする
+	 * @param length 座標数(バッチサイズ以下)
+	 */
+	protected final void convert(final double[] easts, final double[] norths, final int length) {
+		if (Direction.BL2XY == direction) {
+			survey.bl2xy(norths, easts, 0, length, zone, work1, work2);
+			for (int i = 0; i < length; i++) {
+				easts[i] = work2[i];
+				norths[i] = work1[i];
+			}
+		} else {
+			survey.xy2bl(norths, easts, 0, length, zone, work1, work2);
+			for (int i = 0; i < length; i++) {
+				easts[i] = work2[i];
+				norths[i] = work1[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,382 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * このクラスは、GeoJSONを逐次読み込み、座標を変換しながら書き出すクラスです。
+ * <p>
+ * 文書全体をメモリ上に展開せず、ジオメトリの<code>coordinates</code>の座標のみをバッチサイズ単位で変換する。
+ * ジオメトリとみなすのは、文書のルート、<code>geometry</code>の値、<code>geometries</code>の要素のオブジェクトのうち、
+ * <code>type</code>がジオメトリ型(<code>coordinates</code>より前に<code>type</code>がない場合も含む)のものとする。
+ * <code>properties</code>等のその他のメンバーの値は、<code>coordinates</code>を含んでいてもそのまま書き出す。
+ * </p>
+ * <p>
+ * <code>bbox</code>、<code>crs</code>は変換後の座標系では不正となるため出力しない。
+ * 座標の3番目以降の値(高さ等)は変換せずに書き出す(4番目まで)。
+ * </p>
+ * <p>
+ * 座標以外の値も出力を保留して座標と共に保持するため、複数のFeatureにまたがって1バッチで変換する。
+ * 保持する座標数はバッチサイズ、値の数はバッチサイズの4倍を超えない。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class GeoJsonReprojector extends AbstractReprojector {
+
+	/** 座標の最大次元数 */
+	private static final int MAX_DIMENSION = 4;
+
+	/** ジオメトリ型 */
+	private static final Set<String> GEOMETRY_TYPES = new HashSet<String>(Arrays.asList("Point", "MultiPoint", "LineString",
+			"MultiLineString", "Polygon", "MultiPolygon"));
+
+	/** イベント(配列の開始) */
+	private static final int EVENT_BEGIN_ARRAY = -1;
+	/** イベント(配列の終了) */
+	private static final int EVENT_END_ARRAY = -2;
+	/** イベント(オブジェクトの開始) */
+	private static final int EVENT_BEGIN_OBJECT = -3;
+	/** イベント(オブジェクトの終了) */
+	private static final int EVENT_END_OBJECT = -4;
+	/** イベント(名前) */
+	private static final int EVENT_NAME = -5;
+	/** イベント(文字列) */
+	private static final int EVENT_STRING = -6;
+	/** イベント(数値) */
+	private static final int EVENT_NUMBER = -7;
+	/** イベント(true) */
+	private static final int EVENT_TRUE = -8;
+	/** イベント(false) */
+	private static final int EVENT_FALSE = -9;
+	/** イベント(null) */
+	private static final int EVENT_NULL = -10;
+
+	/** 東方向の座標 */
+	private final double[] easts;
+	/** 北方向の座標 */
+	private final double[] norths;
+	/** 3番目の値 */
+	private final double[] thirds;
+	/** 4番目の値 */
+	private final double[] fourths;
+	/** 次元数 */
+	private final int[] dimensions;
+	/** 座標数 */
+	private int positionCount;
+
+	/** イベント(座標の位置、またはその他の値) */
+	private final int[] events;
+	/** イベントの値(名前、文字列、数値) */
+	private final String[] values;
+	/** イベント数 */
+	private int eventCount;
+
+	/** 出力 */
+	private JsonWriter writer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aDirection 変換の方向
+	 */
+	public GeoJsonReprojector(final SurveyUtility aSurvey, final Zone aZone, final Direction aDirection) {
+		this(aSurvey, aZone, aDirection, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aDirection 変換の方向
+	 * @param aBatchSize バッチサイズ
+	 */
+	public GeoJsonReprojector(final SurveyUtility aSurvey, final Zone aZone, final Direction aDirection, final int aBatchSize) {
+		super(aSurvey, aZone, aDirection, aBatchSize);
+		easts = new double[aBatchSize];
+		norths = new double[aBatchSize];
+		thirds = new double[aBatchSize];
+		fourths = new double[aBatchSize];
+		dimensions = new int[aBatchSize];
+		events = new int[aBatchSize * 4];
+		values = new String[aBatchSize * 4];
+	}
+
+	/**
+	 * GeoJSONを変換する。
+	 *
+	 * @param in 入力
+	 * @param out 出力
+	 * @throws IOException 入出力に失敗した場合、または座標が不正な場合
+	 */
+	public void reproject(final Reader in, final Writer out) throws IOException {
+		JsonReader reader = new JsonReader(in);
+		writer = new JsonWriter(out);
+		try {
+			positionCount = 0;
+			eventCount = 0;
+			copyObject(reader, true);
+			flush();
+			writer.flush();
+		} finally {
+			Arrays.fill(values, null);
+			writer = null;
+		}
+	}
+
+	/**
+	 * GeoJSONオブジェクトを複写する。
+	 *
+	 * @param reader 入力
+	 * @param geometry ジオメトリの位置の場合、<code>true</code>
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	private void copyObject(final JsonReader reader, final boolean geometry) throws IOException {
+		if (JsonToken.BEGIN_OBJECT != reader.peek()) {
+			copyValue(reader);
+			return;
+		}
+		reader.beginObject();
+		addEvent(EVENT_BEGIN_OBJECT, null);
+		String type = null;
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if ("bbox".equals(name) || "crs".equals(name)) {
+				reader.skipValue();
+			} else if ("coordinates".equals(name) && geometry && (null == type || GEOMETRY_TYPES.contains(type))) {
+				addEvent(EVENT_NAME, name);
+				readCoordinates(reader);
+			} else if ("geometry".equals(name)) {
+				addEvent(EVENT_NAME, name);
+				copyObject(reader, true);
+			} else if ("geometries".equals(name) || "features".equals(name)) {
+				addEvent(EVENT_NAME, name);
+				copyObjects(reader, "geometries".equals(name));
+			} else if ("type".equals(name) && JsonToken.STRING == reader.peek()) {
+				type = reader.nextString();
+				addEvent(EVENT_NAME, name);
+				addEvent(EVENT_STRING, type);
+			} else {
+				addEvent(EVENT_NAME, name);
+				copyValue(reader);
+			}
+		}
+		reader.endObject();
+		addEvent(EVENT_END_OBJECT, null);
+	}
+
+	/**
+	 * GeoJSONオブジェクトの配列を複写する。
+	 *
+	 * @param reader 入力
+	 * @param geometry ジオメトリの配列の場合、<code>true</code>
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	private void copyObjects(final JsonReader reader, final boolean geometry) throws IOException {
+		if (JsonToken.BEGIN_ARRAY != reader.peek()) {
+			copyValue(reader);
+			return;
+		}
+		reader.beginArray();
+		addEvent(EVENT_BEGIN_ARRAY, null);
+		while (reader.hasNext()) {
+			copyObject(reader, geometry);
+		}
+		reader.endArray();
+		addEvent(EVENT_END_ARRAY, null);
+	}
+
+	/**
+	 * 値をそのまま複写する。
+	 *
+	 * @param reader 入力
+	 * @throws IOException 入出力に失敗した場合
+	 */
+	private void copyValue(final JsonReader reader) throws IOException {
+		JsonToken token = reader.peek();
+		switch (token) {
+		case BEGIN_OBJECT:
+			reader.beginObject();
+			addEvent(EVENT_BEGIN_OBJECT, null);
+			while (reader.hasNext()) {
+				addEvent(EVENT_NAME, reader.nextName());
+				copyValue(reader);
+			}
+			reader.endObject();
+			addEvent(EVENT_END_OBJECT, null);
+			break;
+		case BEGIN_ARRAY:
+			reader.beginArray();
+			addEvent(EVENT_BEGIN_ARRAY, null);
+			while (reader.hasNext()) {
+				copyValue(reader);
+			}
+			reader.endArray();
+			addEvent(EVENT_END_ARRAY, null);
+			break;
+		case STRING:
+			addEvent(EVENT_STRING, reader.nextString());
+			break;
+		case NUMBER:
+			addEvent(EVENT_NUMBER, reader.nextString());
+			break;
+		case BOOLEAN:
+			addEvent(reader.nextBoolean() ? EVENT_TRUE : EVENT_FALSE, null);
+			break;
+		case NULL:
+			reader.nextNull();
+			addEvent(EVENT_NULL, null);
+			break;
+		default:
+			throw new IOException("Unexpected token. " + token);
+		}
+	}
+
+	private void readCoordinates(final JsonReader reader) throws IOException {
+		if (JsonToken.BEGIN_ARRAY != reader.peek()) {
+			throw new IOException("Coordinates must be an array. " + reader.peek());
+		}
+		reader.beginArray();
+		if (JsonToken.NUMBER == reader.peek()) {
+			// 座標
+			if (positionCount == easts.length || eventCount == events.length) {
+				flush();
+			}
+			int index = positionCount++;
+			int dimension = 0;
+			while (reader.hasNext()) {
+				if (JsonToken.NUMBER != reader.peek()) {
+					throw new IOException("Position must contain only numbers. " + reader.peek());
+				}
+				double value = reader.nextDouble();
+				switch (dimension) {
+				case 0:
+					easts[index] = value;
+					break;
+				case 1:
+					norths[index] = value;
+					break;
+				case 2:
+					thirds[index] = value;
+					break;
+				case 3:
+					fourths[index] = value;
+					break;
+				default:
+					break;
+				}
+				dimension++;
+			}
+			if (2 > dimension) {
+				throw new IOException("Position must have at least two elements.");
+			}
+			dimensions[index] = Math.min(dimension, MAX_DIMENSION);
+			events[eventCount++] = index;
+		} else {
+			addEvent(EVENT_BEGIN_ARRAY, null);
+			while (reader.hasNext()) {
+				readCoordinates(reader);
+			}
+			addEvent(EVENT_END_ARRAY, null);
+		}
+		reader.endArray();
+	}
+
+	private void addEvent(final int event, final String value) throws IOException {
+		if (eventCount == events.length) {
+			flush();
+		}
+		events[eventCount] = event;
+		values[eventCount] = value;
+		eventCount++;
+	}
+
+	private void flush() throws IOException {
+		convert(easts, norths, positionCount);
+
+		for (int i = 0; i < eventCount; i++) {
+			int event = events[i];
+			switch (event) {
+			case EVENT_BEGIN_ARRAY:
+				writer.beginArray();
+				break;
+			case EVENT_END_ARRAY:
+				writer.endArray();
+				break;
+			case EVENT_BEGIN_OBJECT:
+				writer.beginObject();
+				break;
+			case EVENT_END_OBJECT:
+				writer.endObject();
+				break;
+			case EVENT_NAME:
+				writer.name(values[i]);
+				break;
+			case EVENT_STRING:
+				writer.value(values[i]);
+				break;
+			case EVENT_NUMBER:
+				writer.value(new BigDecimal(values[i]));
+				break;
+			case EVENT_TRUE:
+				writer.value(true);
+				break;
+			case EVENT_FALSE:
+				writer.value(false);
+				break;
+			case EVENT_NULL:
+				writer.nullValue();
+				break;
+			default:
+				writer.beginArray();
+				writer.value(easts[event]);
+				writer.value(norths[event]);
+				if (3 <= dimensions[event]) {
+					writer.value(thirds[event]);
+				}
+				if (4 <= dimensions[event]) {
+					writer.value(fourths[event]);
+				}
+				writer.endArray();
+				break;
+			}
+			values[i] = null;
+		}
+		positionCount = 0;
+		eventCount = 0;
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、WKB(Well-Known Binary)を逐次読み込み、座標を変換しながら書き出すクラスです。
+ * <p>
+ * 連続した複数のジオメトリを入力の終端まで処理する。バイト順、ジオメトリ型、SRIDは入力のまま書き出す。
+ * Z値、M値を持つジオメトリ(ISO形式、EWKB形式)に対応し、Z値、M値は変換しない。
+ * </p>
+ * <p>
+ * 座標はジオメトリをまたいでバッチサイズ単位で変換する。変換前の座標を含む出力はバッチサイズに達するか入力の終端まで保留し、
+ * 座標を変換してから書き出す。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class WkbReprojector extends AbstractReprojector {
+
+	/** EWKB Zフラグ */
+	private static final int EWKB_Z = 0x80000000;
+	/** EWKB Mフラグ */
+	private static final int EWKB_M = 0x40000000;
+	/** EWKB SRIDフラグ */
+	private static final int EWKB_SRID = 0x20000000;
+
+	/** 座標の最大次元数 */
+	private static final int MAX_DIMENSION = 4;
+
+	/** 東方向の座標 */
+	private final double[] easts;
+	/** 北方向の座標 */
+	private final double[] norths;
+
+	/** 座標の読み込み領域 */
+	private final byte[] buffer;
+	/** 座標の読み込み領域(ビッグエンディアン) */
+	private final ByteBuffer bigEndian;
+	/** 座標の読み込み領域(リトルエンディアン) */
+	private final ByteBuffer littleEndian;
+
+	/** 整数の読み込み領域 */
+	private final byte[] intBuffer = new byte[4];
+
+	/** 保留中の出力 */
+	private byte[] pending;
+	/** 保留中の出力の長さ */
+	private int pendingLength;
+	/** 保留中の出力(ビッグエンディアン) */
+	private ByteBuffer pendingBigEndian;
+	/** 保留中の出力(リトルエンディアン) */
+	private ByteBuffer pendingLittleEndian;
+	/** 保留中の座標の出力内の位置 */
+	private final int[] offsets;
+	/** 保留中の座標がリトルエンディアンか */
+	private final boolean[] littles;
+	/** 保留中の座標数 */
+	private int pendingCount;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aDirection 変換の方向
+	 */
+	public WkbReprojector(final SurveyUtility aSurvey, final Zone aZone, final Direction aDirection) {
+		this(aSurvey, aZone, aDirection, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aDirection 変換の方向
+	 * @param aBatchSize バッチサイズ
+	 */
+	public WkbReprojector(final SurveyUtility aSurvey, final Zone aZone, final Direction aDirection, final int aBatchSize) {
+		super(aSurvey, aZone, aDirection, aBatchSize);
+		easts = new double[aBatchSize];
+		norths = new double[aBatchSize];
+		buffer = new byte[aBatchSize * MAX_DIMENSION * 8];
+		bigEndian = ByteBuffer.wrap(buffer).order(ByteOrder.BIG_ENDIAN);
+		littleEndian = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+		offsets = new int[aBatchSize];
+		littles = new boolean[aBatchSize];
+		setPending(new byte[buffer.length]);
+	}
+
+	/**
+	 * WKBを変換する。
+	 *
+	 * @param wkb WKB
+	 * @return 変換後のWKB
+	 * @throws IOException WKBが不正な場合
+	 */
+	public byte[] reproject(final byte[] wkb) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(wkb.length);
+		reproject(new ByteArrayInputStream(wkb), out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * WKBを変換する。
+	 *
+	 * @param in 入力
+	 * @param out 出力
+	 * @throws IOException 入出力に失敗した場合、またはWKBが不正な場合
+	 */
+	public void reproject(final InputStream in, final OutputStream out) throws IOException {
+		DataInputStream din = (in instanceof DataInputStream) ? (DataInputStream) in : new DataInputStream(in);
+		int byteOrder;
+		pendingLength = 0;
+		pendingCount = 0;
+		while (-1 != (byteOrder = din.read())) {
+			copyGeometry(din, out, byteOrder);
+		}
+		flush(out);
+		out.flush();
+	}
+
+	private void copyGeometry(final DataInputStream in, final OutputStream out, final int byteOrder) throws IOException {
+		ByteBuffer order;
+		if (0 == byteOrder) {
+			order = bigEndian;
+		} else if (1 == byteOrder) {
+			order = littleEndian;
+		} else {
+			throw new IOException("Unsupported byte order. " + byteOrder);
+		}
+		intBuffer[0] = (byte) byteOrder;
+		write(out, intBuffer, 0, 1);
+
+		int type = copyInt(in, out, order);
+		if (0 != (type & EWKB_SRID)) {
+			copyInt(in, out, order);
+		}
+		boolean z = 0 != (type & EWKB_Z);
+		boolean m = 0 != (type & EWKB_M);
+		int base = type & 0x0FFFFFFF;
+		if (1000 <= base) {
+			int flag = base / 1000;
+			z |= (1 == flag || 3 == flag);
+			m |= (2 == flag || 3 == flag);
+			base %= 1000;
+		}
+		int dimension = 2 + (z ? 1 : 0) + (m ? 1 : 0);
+
+		switch (base) {
+		case 1: // Point
+			copyPoints(in, out, order, 1, dimension);
+			break;
+		case 2: // LineString
+			copyPoints(in, out, order, copyCount(in, out, order), dimension);
+			break;
+		case 3: // Polygon
+			int rings = copyCount(in, out, order);
+			for (int i = 0; i < rings; i++) {
+				copyPoints(in, out, order, copyCount(in, out, order), dimension);
+			}
+			break;
+		case 4: // MultiPoint
+		case 5: // MultiLineString
+		case 6: // MultiPolygon
+		case 7: // GeometryCollection
+			int geometries = copyCount(in, out, order);
+			for (int i = 0; i < geometries; i++) {
+				int childByteOrder = in.read();
+				if (-1 == childByteOrder) {
+					throw new EOFException();
+				}
+				copyGeometry(in, out, childByteOrder);
+			}
+			break;
+		default:
+			throw new IOException("Unsupported geometry type. " + type);
+		}
+	}
+
+	private int copyInt(final DataInputStream in, final OutputStream out, final ByteBuffer order) throws IOException {
+		in.readFully(intBuffer);
+		write(out, intBuffer, 0, 4);
+		for (int i = 0; i < 4; i++) {
+			buffer[i] = intBuffer[i];
+		}
+		return order.getInt(0);
+	}
+
+	private int copyCount(final DataInputStream in, final OutputStream out, final ByteBuffer order) throws IOException {
+		int count = copyInt(in, out, order);
+		if (0 > count) {
+			throw new IOException("Invalid count. " + count);
+		}
+		return count;
+	}
+
+	private void copyPoints(final DataInputStream in, final OutputStream out, final ByteBuffer order, final int count, final int dimension)
+			throws IOException {
+		int stride = dimension * 8;
+		boolean little = (littleEndian == order);
+		int chunk = buffer.length / stride;
+		int remaining = count;
+		while (0 < remaining) {
+			int n = Math.min(chunk, remaining);
+			in.readFully(buffer, 0, n * stride);
+			for (int i = 0; i < n; i++) {
+				// 変換後に上書きするため、出力内の位置を記録する
+				easts[pendingCount] = order.getDouble(i * stride);
+				norths[pendingCount] = order.getDouble(i * stride + 8);
+				offsets[pendingCount] = pendingLength;
+				littles[pendingCount] = little;
+				pendingCount++;
+				append(buffer, i * stride, stride);
+				if (getBatchSize() == pendingCount) {
+					flush(out);
+				}
+			}
+			remaining -= n;
+		}
+	}
+
+	private void write(final OutputStream out, final byte[] bytes, final int offset, final int length) throws IOException {
+		if (0 == pendingCount) {
+			// 保留中の座標がない場合はそのまま書き出す
+			out.write(bytes, offset, length);
+		} else {
+			append(bytes, offset, length);
+		}
+	}
+
+	private void append(final byte[] bytes, final int offset, final int length) {
+		if (pending.length < pendingLength + length) {
+			byte[] extended = new byte[Math.max(pending.length * 2, pendingLength + length)];
+			System.arraycopy(pending, 0, extended, 0, pendingLength);
+			setPending(extended);
+		}
+		System.arraycopy(bytes, offset, pending, pendingLength, length);
+		pendingLength += length;
+	}
+
+	private void setPending(final byte[] aPending) {
+		pending = aPending;
+		pendingBigEndian = ByteBuffer.wrap(aPending).order(ByteOrder.BIG_ENDIAN);
+		pendingLittleEndian = ByteBuffer.wrap(aPending).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private void flush(final OutputStream out) throws IOException {
+		if (0 < pendingCount) {
+			convert(easts, norths, pendingCount);
+			for (int i = 0; i < pendingCount; i++) {
+				ByteBuffer order = littles[i] ? pendingLittleEndian : pendingBigEndian;
+				order.putDouble(offsets[i], easts[i]);
+				order.putDouble(offsets[i] + 8, norths[i]);
+			}
+			pendingCount = 0;
+		}
+		out.write(pending, 0, pendingLength);
+		pendingLength = 0;
+	}
+}
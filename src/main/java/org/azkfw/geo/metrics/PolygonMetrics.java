@@ -0,0 +1,444 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.metrics;
+
+import java.util.concurrent.ExecutorService;
+
+import org.azkfw.geo.ParallelUtility;
+import org.azkfw.geo.ParallelUtility.RangeTask;
+import org.azkfw.geo.SokuchiKei;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、ポリゴンの面積、周長、重心を一括で求めるクラスです。
+ * <p>
+ * 頂点は連続した配列で受け取り、リングは<code>ringOffsets</code>、ポリゴンは<code>polygonOffsets</code>で区切る。
+ * <code>ringOffsets[r]</code>はリングrの先頭頂点の位置、<code>polygonOffsets[p]</code>はポリゴンpの先頭リングの位置とし、
+ * いずれも末尾に総数を格納する(要素数は総数 + 1)。ポリゴンの先頭リングを外周、以降を穴とする。
+ * リングの向き、終点が始点と一致するかは問わない。
+ * </p>
+ * <p>
+ * 計算方法は{@link Mode}で指定する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class PolygonMetrics {
+
+	/**
+	 * この列挙型は、計算方法を定義した列挙型です。
+	 *
+	 * @author kawakicchi
+	 */
+	public static enum Mode {
+		/** 平面直角座標上で計算する */
+		PLANE,
+		/** 平面直角座標上で計算し、縮尺係数で補正する */
+		PLANE_SCALED,
+		/** 楕円体上で計算する */
+		ELLIPSOID;
+	}
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+	/** 系番号 */
+	private final Zone zone;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号(平面直角座標上で計算する場合に使用)
+	 */
+	public PolygonMetrics(final SurveyUtility aSurvey, final Zone aZone) {
+		survey = aSurvey;
+		zone = aZone;
+	}
+
+	/**
+	 * 緯度、経度のポリゴンの面積、周長、重心を求める。
+	 * <p>
+	 * 不要な結果の格納先は<code>null</code>を指定できる。
+	 * </p>
+	 *
+	 * @param mode 計算方法
+	 * @param latitudes 頂点の緯度[degree]
+	 * @param longitudes 頂点の経度[degree]
+	 * @param ringOffsets リングの先頭頂点の位置
+	 * @param polygonOffsets ポリゴンの先頭リングの位置
+	 * @param areas 結果格納先(面積[m<sup>2</sup>])
+	 * @param perimeters 結果格納先(周長[m])
+	 * @param centroidLatitudes 結果格納先(重心の緯度[degree])
+	 * @param centroidLongitudes 結果格納先(重心の経度[degree])
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 */
+	public void compute(final Mode mode, final double[] latitudes, final double[] longitudes, final int[] ringOffsets, final int[] polygonOffsets,
+			final double[] areas, final double[] perimeters, final double[] centroidLatitudes, final double[] centroidLongitudes,
+			final ExecutorService executor) {
+		int polygonCount = polygonOffsets.length - 1;
+
+		if (Mode.ELLIPSOID == mode) {
+			final SokuchiKei sokuchiKei = survey.getSokuchiKei();
+			ParallelUtility.execute(executor, polygonCount, new RangeTask() {
+				@Override
+				public void execute(final int start, final int end) {
+					double[] result = new double[4];
+					for (int p = start; p < end; p++) {
+						ellipsoid(sokuchiKei, latitudes, longitudes, ringOffsets, polygonOffsets[p], polygonOffsets[p + 1], result);
+						store(p, result, areas, perimeters, centroidLatitudes, centroidLongitudes);
+					}
+				}
+			});
+		} else {
+			final double[] xs = new double[latitudes.length];
+			final double[] ys = new double[latitudes.length];
+			final double[] scaleFactors = (Mode.PLANE_SCALED == mode) ? new double[latitudes.length] : null;
+			ParallelUtility.execute(executor, latitudes.length, new RangeTask() {
+				@Override
+				public void execute(final int start, final int end) {
+					survey.bl2xy(latitudes, longitudes, start, end, zone, xs, ys, null, scaleFactors);
+				}
+			});
+
+			ParallelUtility.execute(executor, polygonCount, new RangeTask() {
+				@Override
+				public void execute(final int start, final int end) {
+					double[] result = new double[4];
+					double[] bl = new double[2];
+					for (int p = start; p < end; p++) {
+						plane(xs, ys, scaleFactors, ringOffsets, polygonOffsets[p], polygonOffsets[p + 1], result);
+						if (null != centroidLatitudes || null != centroidLongitudes) {
+							survey.xy2bl(result[2], result[3], zone, bl);
+							result[2] = bl[0];
+							result[3] = bl[1];
+						}
+						store(p, result, areas, perimeters, centroidLatitudes, centroidLongitudes);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * 平面直角座標のポリゴンの面積、周長、重心を求める。
+	 * <p>
+	 * 不要な結果の格納先は<code>null</code>を指定できる。
+	 * 縮尺係数で補正する場合、頂点の縮尺係数は{@link SurveyUtility}で一括して求める。
+	 * </p>
+	 *
+	 * @param scaled 縮尺係数で補正する場合、<code>true</code>
+	 * @param xs 頂点のX座標[m]
+	 * @param ys 頂点のY座標[m]
+	 * @param ringOffsets リングの先頭頂点の位置
+	 * @param polygonOffsets ポリゴンの先頭リングの位置
+	 * @param areas 結果格納先(面積[m<sup>2</sup>])
+	 * @param perimeters 結果格納先(周長[m])
+	 * @param centroidXs 結果格納先(重心のX座標[m])
+	 * @param centroidYs 結果格納先(重心のY座標[m])
+	 * @param executor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで処理)
+	 */
+	public void computeXY(final boolean scaled, final double[] xs, final double[] ys, final int[] ringOffsets, final int[] polygonOffsets,
+			final double[] areas, final double[] perimeters, final double[] centroidXs, final double[] centroidYs, final ExecutorService executor) {
+		final double[] scaleFactors;
+		if (scaled) {
+			scaleFactors = new double[xs.length];
+			final double[] latitudes = new double[xs.length];
+			final double[] longitudes = new double[xs.length];
+			ParallelUtility.execute(executor, xs.length, new RangeTask() {
+				@Override
+				public void execute(final int start, final int end) {
+					survey.xy2bl(xs, ys, start, end, zone, latitudes, longitudes, null, scaleFactors);
+				}
+			});
+		} else {
+			scaleFactors = null;
+		}
+
+		ParallelUtility.execute(executor, polygonOffsets.length - 1, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				double[] result = new double[4];
+				for (int p = start; p < end; p++) {
+					plane(xs, ys, scaleFactors, ringOffsets, polygonOffsets[p], polygonOffsets[p + 1], result);
+					store(p, result, areas, perimeters, centroidXs, centroidYs);
+				}
+			}
+		});
+	}
+
+	private static void store(final int index, final double[] result, final double[] areas, final double[] perimeters, final double[] centroids1,
+			final double[] centroids2) {
+		if (null != areas) {
+			areas[index] = result[0];
+		}
+		if (null != perimeters) {
+			perimeters[index] = result[1];
+		}
+		if (null != centroids1) {
+			centroids1[index] = result[2];
+		}
+		if (null != centroids2) {
+			centroids2[index] = result[3];
+		}
+	}
+
+	/**
+	 * 平面直角座標上で計算する。
+	 * <p>
+	 * 縮尺係数で補正する場合、辺の長さは両端の縮尺係数の平均、面積は外周の先頭頂点と辺がなす三角形毎に
+	 * 3頂点の縮尺係数の平均の二乗で割って求める。
+	 * </p>
+	 *
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param scaleFactors 頂点の縮尺係数、補正しない場合は<code>null</code>
+	 * @param ringOffsets リングの先頭頂点の位置
+	 * @param ringStart 先頭リングの位置
+	 * @param ringEnd 終了リングの位置(このリングは含まない)
+	 * @param result 結果格納先(面積、周長、重心X、重心Y)
+	 */
+	private static void plane(final double[] xs, final double[] ys, final double[] scaleFactors, final int[] ringOffsets, final int ringStart,
+			final int ringEnd, final double[] result) {
+		boolean scaled = (null != scaleFactors);
+		double area = 0.0;
+		double rawArea = 0.0;
+		double perimeter = 0.0;
+		double momentX = 0.0;
+		double momentY = 0.0;
+
+		int first = ringOffsets[ringStart];
+		int last = ringOffsets[ringStart + 1];
+		// 桁落ちを避けるため、外周の先頭頂点を基準とする
+		double refX = (first < last) ? xs[first] : 0.0;
+		double refY = (first < last) ? ys[first] : 0.0;
+		double refK = (scaled && first < last) ? scaleFactors[first] : 1.0;
+
+		for (int r = ringStart; r < ringEnd; r++) {
+			int start = ringOffsets[r];
+			int end = ringOffsets[r + 1];
+			if (start >= end) {
+				continue;
+			}
+
+			double a2 = 0.0;
+			double scaledA2 = 0.0;
+			double cx = 0.0;
+			double cy = 0.0;
+			double length = 0.0;
+			double x1 = xs[end - 1] - refX;
+			double y1 = ys[end - 1] - refY;
+			double k1 = scaled ? scaleFactors[end - 1] : 1.0;
+			for (int i = start; i < end; i++) {
+				double x2 = xs[i] - refX;
+				double y2 = ys[i] - refY;
+				double cross = x1 * y2 - x2 * y1;
+				a2 += cross;
+				cx += (x1 + x2) * cross;
+				cy += (y1 + y2) * cross;
+
+				double d = Math.hypot(x2 - x1, y2 - y1);
+				if (scaled) {
+					double k2 = scaleFactors[i];
+					double k = (refK + k1 + k2) / 3.0;
+					scaledA2 += cross / (k * k);
+					d /= (k1 + k2) / 2.0;
+					k1 = k2;
+				}
+				length += d;
+
+				x1 = x2;
+				y1 = y2;
+			}
+
+			double sign = (r == ringStart) ? 1.0 : -1.0;
+			double weight = sign * Math.abs(a2 / 2.0);
+			if (0.0 != a2) {
+				momentX += weight * cx / (3.0 * a2);
+				momentY += weight * cy / (3.0 * a2);
+			}
+			rawArea += weight;
+			area += scaled ? sign * Math.abs(scaledA2 / 2.0) : weight;
+			perimeter += length;
+		}
+
+		result[0] = area;
+		result[1] = perimeter;
+		if (0.0 != rawArea) {
+			result[2] = momentX / rawArea + refX;
+			result[3] = momentY / rawArea + refY;
+		} else if (first < last) {
+			// 面積が0の場合、外周の頂点の平均とする
+			double sumX = 0.0;
+			double sumY = 0.0;
+			for (int i = first; i < last; i++) {
+				sumX += xs[i];
+				sumY += ys[i];
+			}
+			result[2] = sumX / (last - first);
+			result[3] = sumY / (last - first);
+		} else {
+			result[2] = Double.NaN;
+			result[3] = Double.NaN;
+		}
+	}
+
+	/**
+	 * 楕円体上で計算する。
+	 * <p>
+	 * 面積、重心は正積円筒図法(x = aλ, y = aq/2)上で求める。辺は同図法上の直線とみなすため、微小な辺では測地線と一致する。
+	 * 周長は辺の中点の緯度における子午線曲率半径、卯酉線曲率半径を用いて求める。
+	 * </p>
+	 *
+	 * @param sokuchiKei 測地系
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param ringOffsets リングの先頭頂点の位置
+	 * @param ringStart 先頭リングの位置
+	 * @param ringEnd 終了リングの位置(このリングは含まない)
+	 * @param result 結果格納先(面積、周長、重心緯度、重心経度)
+	 */
+	private static void ellipsoid(final SokuchiKei sokuchiKei, final double[] latitudes, final double[] longitudes, final int[] ringOffsets,
+			final int ringStart, final int ringEnd, final double[] result) {
+		double a = sokuchiKei.a;
+		double e2 = sokuchiKei.getE2();
+		double e = sokuchiKei.getE();
+
+		double area = 0.0;
+		double perimeter = 0.0;
+		double momentX = 0.0;
+		double momentY = 0.0;
+
+		int first = ringOffsets[ringStart];
+		int last = ringOffsets[ringStart + 1];
+		double refX = (first < last) ? a * Math.toRadians(longitudes[first]) : 0.0;
+		double refY = (first < last) ? a * authalic(Math.toRadians(latitudes[first]), e, e2) / 2.0 : 0.0;
+
+		for (int r = ringStart; r < ringEnd; r++) {
+			int start = ringOffsets[r];
+			int end = ringOffsets[r + 1];
+			if (start >= end) {
+				continue;
+			}
+
+			double a2 = 0.0;
+			double cx = 0.0;
+			double cy = 0.0;
+			double length = 0.0;
+			double phi1 = Math.toRadians(latitudes[end - 1]);
+			double lamda1 = Math.toRadians(longitudes[end - 1]);
+			double x1 = a * lamda1 - refX;
+			double y1 = a * authalic(phi1, e, e2) / 2.0 - refY;
+			for (int i = start; i < end; i++) {
+				double phi2 = Math.toRadians(latitudes[i]);
+				double lamda2 = Math.toRadians(longitudes[i]);
+				double x2 = a * lamda2 - refX;
+				double y2 = a * authalic(phi2, e, e2) / 2.0 - refY;
+
+				double cross = x1 * y2 - x2 * y1;
+				a2 += cross;
+				cx += (x1 + x2) * cross;
+				cy += (y1 + y2) * cross;
+
+				double sin = Math.sin((phi1 + phi2) / 2.0);
+				double w2 = 1.0 - e2 * sin * sin;
+				double w = Math.sqrt(w2);
+				double m = a * (1.0 - e2) / (w2 * w);
+				double n = a / w;
+				length += Math.hypot(m * (phi2 - phi1), n * Math.cos((phi1 + phi2) / 2.0) * (lamda2 - lamda1));
+
+				phi1 = phi2;
+				lamda1 = lamda2;
+				x1 = x2;
+				y1 = y2;
+			}
+
+			double ringArea = Math.abs(a2 / 2.0);
+			double weight = (r == ringStart) ? ringArea : -ringArea;
+			if (0.0 != a2) {
+				momentX += weight * cx / (3.0 * a2);
+				momentY += weight * cy / (3.0 * a2);
+			}
+			area += weight;
+			perimeter += length;
+		}
+
+		result[0] = area;
+		result[1] = perimeter;
+		if (0.0 != area) {
+			double x = momentX / area + refX;
+			double y = momentY / area + refY;
+			result[2] = Math.toDegrees(inverseAuthalic(2.0 * y / a, e, e2));
+			result[3] = Math.toDegrees(x / a);
+		} else if (first < last) {
+			// 面積が0の場合、外周の頂点の平均とする
+			double sumLat = 0.0;
+			double sumLon = 0.0;
+			for (int i = first; i < last; i++) {
+				sumLat += latitudes[i];
+				sumLon += longitudes[i];
+			}
+			result[2] = sumLat / (last - first);
+			result[3] = sumLon / (last - first);
+		} else {
+			result[2] = Double.NaN;
+			result[3] = Double.NaN;
+		}
+	}
+
+	/**
+	 * 正積緯度の関数qを求める。
+	 *
+	 * @param phi 緯度[radian]
+	 * @param e 離心率
+	 * @param e2 離心率の二乗
+	 * @return q
+	 */
+	private static double authalic(final double phi, final double e, final double e2) {
+		double sin = Math.sin(phi);
+		double es = e * sin;
+		return (1.0 - e2) * (sin / (1.0 - es * es) - Math.log((1.0 - es) / (1.0 + es)) / (2.0 * e));
+	}
+
+	/**
+	 * 正積緯度の関数qから緯度を求める。
+	 *
+	 * @param q q
+	 * @param e 離心率
+	 * @param e2 離心率の二乗
+	 * @return 緯度[radian]
+	 */
+	private static double inverseAuthalic(final double q, final double e, final double e2) {
+		double phi = Math.asin(Math.max(-1.0, Math.min(1.0, q / 2.0)));
+		for (int i = 0; i < 10; i++) {
+			double sin = Math.sin(phi);
+			double cos = Math.cos(phi);
+			double es = e * sin;
+			double w = 1.0 - es * es;
+			double delta = w * w / (2.0 * cos)
+					* (q / (1.0 - e2) - sin / w + Math.log((1.0 - es) / (1.0 + es)) / (2.0 * e));
+			phi += delta;
+			if (Math.abs(delta) < 1e-15) {
+				break;
+			}
+		}
+		return phi;
+	}
+}
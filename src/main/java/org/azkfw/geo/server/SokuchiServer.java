@@ -0,0 +1,305 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * このクラスは、測量計算サイトと互換性のある座標変換サーバです。
+ * <p>
+ * JDK組み込みのHTTPサーバで<code>bl2xy.pl</code>、<code>xy2bl.pl</code>を提供し、{@link SokuchiService}で変換する。
+ * {@link org.azkfw.geo.SokuchiAPI}のURLに{@link #getUrl()}を指定して利用できる。
+ * </p>
+ * <ul>
+ * <li>GET: 1座標を変換する(測量計算サイトと同じパラメータ、同じ形式のJSON)</li>
+ * <li>POST: リクエストボディの座標の配列を一括で変換する(<code>refFrame</code>、<code>zone</code>はクエリ文字列で指定)</li>
+ * </ul>
+ * <p>
+ * リクエストはコンストラクタで指定したエグゼキュータで処理する。
+ * Java 21以降では仮想スレッドのエグゼキュータ(<code>Executors.newVirtualThreadPerTaskExecutor()</code>)も指定できる。
+ * </p>
+ * <p>
+ * 一括変換の結果は{@link #RESPONSE_BUFFER_SIZE}を超えた時点でステータスコード200を返して逐次送信する。
+ * それ以降に入力の誤りを検出した場合は、レスポンスを完了せずに接続を切断する。
+ * </p>
+ * <p>
+ * 応答が小さいため、Nagleアルゴリズムによる遅延を避ける場合は呼び出し元でJVMの起動時(最初のサーバを生成する前)に
+ * システムプロパティ{@link #PROPERTY_NODELAY}を<code>true</code>とすること。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiServer {
+
+	/** コンテキストパス */
+	public static final String CONTEXT_PATH = "/sokuchi/surveycalc/surveycalc/";
+
+	/** TCP_NODELAYを指定するシステムプロパティ */
+	public static final String PROPERTY_NODELAY = "sun.net.httpserver.nodelay";
+
+	/** 一括変換でステータスコードを返すまでにバッファするレスポンスの最大サイズ[byte] */
+	public static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+
+	/** 変換処理 */
+	private final SokuchiService service = new SokuchiService();
+
+	/** バインドするアドレス */
+	private final InetSocketAddress address;
+	/** エグゼキュータ */
+	private final ExecutorService executor;
+	/** エグゼキュータを停止時に終了するか */
+	private final boolean shutdownExecutor;
+
+	/** サーバ */
+	private HttpServer server;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ローカルホストの空いているポートで、CPU数の2倍のスレッドで処理する。
+	 * </p>
+	 */
+	public SokuchiServer() {
+		this(new InetSocketAddress("localhost", 0));
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * CPU数の2倍のスレッドで処理する。
+	 * </p>
+	 *
+	 * @param aAddress バインドするアドレス
+	 */
+	public SokuchiServer(final InetSocketAddress aAddress) {
+		this(aAddress, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2), true);
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * エグゼキュータはサーバの停止時に終了しない。
+	 * </p>
+	 *
+	 * @param aAddress バインドするアドレス
+	 * @param aExecutor エグゼキュータ
+	 */
+	public SokuchiServer(final InetSocketAddress aAddress, final ExecutorService aExecutor) {
+		this(aAddress, aExecutor, false);
+	}
+
+	private SokuchiServer(final InetSocketAddress aAddress, final ExecutorService aExecutor, final boolean aShutdownExecutor) {
+		address = aAddress;
+		executor = aExecutor;
+		shutdownExecutor = aShutdownExecutor;
+	}
+
+	/**
+	 * サーバを開始する。
+	 *
+	 * @throws IOException 開始に失敗した場合
+	 */
+	public synchronized void start() throws IOException {
+		if (null != server) {
+			throw new IllegalStateException("Server already started.");
+		}
+		server = HttpServer.create(address, 0);
+		server.createContext(CONTEXT_PATH, new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				// 例外が発生した場合はレスポンスを完了させず、HTTPサーバに接続を切断させる
+				doHandle(exchange);
+				exchange.close();
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * サーバを停止する。
+	 */
+	public synchronized void stop() {
+		if (null != server) {
+			server.stop(0);
+			server = null;
+			if (shutdownExecutor) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * URLを取得する。
+	 *
+	 * @return URL({@link org.azkfw.geo.SokuchiAPI}に指定するURL)
+	 */
+	public synchronized String getUrl() {
+		if (null == server) {
+			throw new IllegalStateException("Server not started.");
+		}
+		InetSocketAddress bound = server.getAddress();
+		return String.format("http://%s:%d%s", bound.getHostString(), bound.getPort(), CONTEXT_PATH);
+	}
+
+	private void doHandle(final HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		String alias = path.substring(path.lastIndexOf('/') + 1);
+		Map<String, String> params = SokuchiService.parseQuery(exchange.getRequestURI().getRawQuery());
+		String method = exchange.getRequestMethod();
+
+		try {
+			if ("GET".equals(method)) {
+				JsonObject result = service.convert(alias, params);
+				if (null == result) {
+					send(exchange, 404, error("Unsupported alias. " + alias));
+				} else {
+					send(exchange, 200, result.toString().getBytes("UTF-8"));
+				}
+			} else if ("POST".equals(method)) {
+				DeferredOutputStream out = new DeferredOutputStream(exchange);
+				try {
+					Writer writer = new OutputStreamWriter(out, "UTF-8");
+					service.convert(alias, params, new InputStreamReader(exchange.getRequestBody(), "UTF-8"), writer);
+					writer.flush();
+				} catch (IllegalArgumentException ex) {
+					if (out.isCommitted()) {
+						// 送信済みのレスポンスは取り消せないため、接続を切断する
+						throw new IOException(ex.getMessage(), ex);
+					}
+					throw ex;
+				}
+				out.finish();
+			} else {
+				exchange.getResponseHeaders().set("Allow", "GET, POST");
+				send(exchange, 405, error("Unsupported method. " + method));
+			}
+		} catch (IllegalArgumentException ex) {
+			send(exchange, 400, error(ex.getMessage()));
+		}
+	}
+
+	private static byte[] error(final String aMessage) throws IOException {
+		JsonObject root = new JsonObject();
+		root.addProperty("error", aMessage);
+		return root.toString().getBytes("UTF-8");
+	}
+
+	private static void send(final HttpExchange exchange, final int status, final byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.flush();
+	}
+
+	/**
+	 * このクラスは、レスポンスを一定サイズまでバッファし、超えた時点で送信を開始する出力ストリームです。
+	 * <p>
+	 * バッファ内に収まった場合は{@link #finish()}でContent-Lengthを指定して送信する。
+	 * </p>
+	 *
+	 * @author kawakicchi
+	 */
+	private static final class DeferredOutputStream extends FilterOutputStream {
+
+		/** HTTPエクスチェンジ */
+		private final HttpExchange exchange;
+		/** 送信前のバッファ */
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		/** 送信を開始したか */
+		private boolean committed;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param aExchange HTTPエクスチェンジ
+		 */
+		private DeferredOutputStream(final HttpExchange aExchange) {
+			super(null);
+			exchange = aExchange;
+		}
+
+		/**
+		 * 送信を開始したか判断する。
+		 *
+		 * @return 送信を開始した場合、<code>true</code>
+		 */
+		public boolean isCommitted() {
+			return committed;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			if (!committed && RESPONSE_BUFFER_SIZE < buffer.size() + len) {
+				exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+				exchange.sendResponseHeaders(200, 0);
+				out = exchange.getResponseBody();
+				buffer.writeTo(out);
+				committed = true;
+			}
+			if (committed) {
+				out.write(b, off, len);
+			} else {
+				buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (committed) {
+				out.flush();
+			}
+		}
+
+		/**
+		 * レスポンスを完了する。
+		 *
+		 * @throws IOException 送信に失敗した場合
+		 */
+		public void finish() throws IOException {
+			if (committed) {
+				out.flush();
+			} else {
+				send(exchange, 200, buffer.toByteArray());
+			}
+		}
+	}
+}
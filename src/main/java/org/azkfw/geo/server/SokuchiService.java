@@ -0,0 +1,254 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.azkfw.geo.SokuchiKei;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * このクラスは、測量計算サイト(<code>bl2xy.pl</code>、<code>xy2bl.pl</code>)と同じ形式で座標を変換するクラスです。
+ * <p>
+ * パラメータは測量計算サイトと同じ(<code>refFrame</code>、<code>zone</code>、<code>latitude</code>、<code>longitude</code>、
+ * <code>publicX</code>、<code>publicY</code>)とし、結果を<code>OutputData</code>に格納したJSONを返す。
+ * 緯度、経度、真北方向角は10進数[degree]とする。
+ * </p>
+ * <p>
+ * 一括変換では座標の配列(<code>[[a, b], ...]</code>)を逐次読み込み、{@link #BATCH_SIZE}単位で変換して書き出す。
+ * </p>
+ * <p>
+ * 状態を持たないため、スレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiService {
+
+	/** 緯度、経度から平面直角座標への換算 */
+	public static final String BL2XY = "bl2xy.pl";
+	/** 平面直角座標から緯度、経度への換算 */
+	public static final String XY2BL = "xy2bl.pl";
+
+	/** 一括変換のバッチサイズ */
+	public static final int BATCH_SIZE = 1024;
+
+	/** 世界測地系の測量ユーティリティ */
+	private final SurveyUtility world = new SurveyUtility(SokuchiKei.GRS80);
+	/** 日本測地系の測量ユーティリティ */
+	private final SurveyUtility japan = new SurveyUtility(SokuchiKei.TokyoJapan);
+
+	/**
+	 * 座標を変換する。
+	 *
+	 * @param alias 処理名({@link #BL2XY}または{@link #XY2BL})
+	 * @param params パラメータ
+	 * @return 結果(JSON)、処理名が不正な場合は<code>null</code>
+	 * @throws IllegalArgumentException パラメータが不正な場合
+	 */
+	public JsonObject convert(final String alias, final Map<String, String> params) {
+		SurveyUtility survey = getSurvey(params.get("refFrame"));
+		Zone zone = getZone(params.get("zone"));
+
+		JsonObject data = new JsonObject();
+		double[] buffer = new double[4];
+		if (BL2XY.equals(alias)) {
+			survey.bl2xy(getDouble(params, "latitude"), getDouble(params, "longitude"), zone, buffer);
+			data.addProperty("publicX", String.format(Locale.ROOT, "%.4f", buffer[0]));
+			data.addProperty("publicY", String.format(Locale.ROOT, "%.4f", buffer[1]));
+		} else if (XY2BL.equals(alias)) {
+			survey.xy2bl(getDouble(params, "publicX"), getDouble(params, "publicY"), zone, buffer);
+			data.addProperty("latitude", String.format(Locale.ROOT, "%.9f", buffer[0]));
+			data.addProperty("longitude", String.format(Locale.ROOT, "%.9f", buffer[1]));
+		} else {
+			return null;
+		}
+		data.addProperty("gridConv", String.format(Locale.ROOT, "%.9f", buffer[2]));
+		data.addProperty("scaleFactor", String.format(Locale.ROOT, "%.9f", buffer[3]));
+
+		JsonObject root = new JsonObject();
+		root.add("OutputData", data);
+		return root;
+	}
+
+	/**
+	 * 座標を一括で変換する。
+	 * <p>
+	 * 入力は{@link #BL2XY}の場合は<code>[[緯度, 経度], ...]</code>、{@link #XY2BL}の場合は<code>[[X, Y], ...]</code>とする。
+	 * 出力は<code>{"OutputData": [{...}, ...]}</code>とし、各要素は{@link #convert(String, Map)}と同じ項目を数値で格納する。
+	 * </p>
+	 *
+	 * @param alias 処理名({@link #BL2XY}または{@link #XY2BL})
+	 * @param params パラメータ(<code>refFrame</code>、<code>zone</code>)
+	 * @param in 入力
+	 * @param out 出力
+	 * @return 変換した座標数
+	 * @throws IOException 入出力に失敗した場合
+	 * @throws IllegalArgumentException 処理名、パラメータ、入力が不正な場合
+	 */
+	public int convert(final String alias, final Map<String, String> params, final Reader in, final Writer out) throws IOException {
+		boolean bl2xy = BL2XY.equals(alias);
+		if (!bl2xy && !XY2BL.equals(alias)) {
+			throw new IllegalArgumentException("Unsupported alias. " + alias);
+		}
+		SurveyUtility survey = getSurvey(params.get("refFrame"));
+		Zone zone = getZone(params.get("zone"));
+
+		double[] as = new double[BATCH_SIZE];
+		double[] bs = new double[BATCH_SIZE];
+		double[] rs1 = new double[BATCH_SIZE];
+		double[] rs2 = new double[BATCH_SIZE];
+		double[] gridConvs = new double[BATCH_SIZE];
+		double[] scaleFactors = new double[BATCH_SIZE];
+		String name1 = bl2xy ? "publicX" : "latitude";
+		String name2 = bl2xy ? "publicY" : "longitude";
+
+		JsonReader reader = new JsonReader(in);
+		JsonWriter writer = new JsonWriter(out);
+		int count = 0;
+		try {
+			writer.beginObject();
+			writer.name("OutputData");
+			writer.beginArray();
+
+			reader.beginArray();
+			int n = 0;
+			while (true) {
+				boolean hasNext = reader.hasNext();
+				if (hasNext) {
+					reader.beginArray();
+					as[n] = reader.nextDouble();
+					bs[n] = reader.nextDouble();
+					if (reader.hasNext()) {
+						throw new IllegalArgumentException("Point must have two elements.");
+					}
+					reader.endArray();
+					n++;
+				}
+				if (BATCH_SIZE == n || (!hasNext && 0 < n)) {
+					if (bl2xy) {
+						survey.bl2xy(as, bs, 0, n, zone, rs1, rs2, gridConvs, scaleFactors);
+					} else {
+						survey.xy2bl(as, bs, 0, n, zone, rs1, rs2, gridConvs, scaleFactors);
+					}
+					for (int i = 0; i < n; i++) {
+						writer.beginObject();
+						writer.name(name1).value(rs1[i]);
+						writer.name(name2).value(rs2[i]);
+						writer.name("gridConv").value(gridConvs[i]);
+						writer.name("scaleFactor").value(scaleFactors[i]);
+						writer.endObject();
+					}
+					count += n;
+					n = 0;
+				}
+				if (!hasNext) {
+					break;
+				}
+			}
+			reader.endArray();
+
+			writer.endArray();
+			writer.endObject();
+			writer.flush();
+		} catch (IllegalStateException | NumberFormatException | MalformedJsonException ex) {
+			// JSONの構造、数値が不正な場合
+			throw new IllegalArgumentException(ex.getMessage(), ex);
+		} catch (EOFException ex) {
+			// 入力が途中で終了している場合
+			throw new IllegalArgumentException("Unexpected end of input.", ex);
+		}
+		return count;
+	}
+
+	/**
+	 * クエリ文字列を解析する。
+	 *
+	 * @param query クエリ文字列(<code>null</code>可)
+	 * @return パラメータ(名前の昇順)
+	 */
+	public static Map<String, String> parseQuery(final String query) {
+		Map<String, String> params = new TreeMap<String, String>();
+		if (null != query) {
+			try {
+				for (String pair : query.split("&")) {
+					if (0 == pair.length()) {
+						continue;
+					}
+					int index = pair.indexOf('=');
+					if (-1 == index) {
+						params.put(URLDecoder.decode(pair, "UTF-8"), "");
+					} else {
+						params.put(URLDecoder.decode(pair.substring(0, index), "UTF-8"), URLDecoder.decode(pair.substring(index + 1), "UTF-8"));
+					}
+				}
+			} catch (UnsupportedEncodingException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+		return params;
+	}
+
+	private SurveyUtility getSurvey(final String aRefFrame) {
+		if (null == aRefFrame || "2".equals(aRefFrame)) {
+			return world;
+		} else if ("1".equals(aRefFrame)) {
+			return japan;
+		}
+		throw new IllegalArgumentException("Unsupported refFrame. " + aRefFrame);
+	}
+
+	private static Zone getZone(final String aZone) {
+		if (null != aZone) {
+			for (Zone zone : Zone.values()) {
+				if (Integer.toString(zone.getNo()).equals(aZone)) {
+					return zone;
+				}
+			}
+		}
+		throw new IllegalArgumentException("Unsupported zone. " + aZone);
+	}
+
+	private static double getDouble(final Map<String, String> aParams, final String aName) {
+		String value = aParams.get(aName);
+		if (null == value) {
+			throw new IllegalArgumentException("Missing parameter. " + aName);
+		}
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid parameter. " + aName);
+		}
+	}
+}
@@ -0,0 +1,329 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * このクラスは、要素をまとめて変換するプロセッサの基底クラスです。
+ * <p>
+ * 上流への要求数は下流の要求数を超えない(最大でバッチサイズの2倍まで先読みする)。
+ * 受信した要素はバッチサイズ毎、または上流への要求分を受信し終えた時点でまとめて変換する。
+ * 変換はエグゼキュータ上で1バッチずつ実行し、結果は受信順に下流へ通知する。
+ * </p>
+ * <p>
+ * 購読者は1つのみ受け付けます。
+ * </p>
+ *
+ * @param <T> 入力要素の型
+ * @param <R> 出力要素の型
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public abstract class AbstractBatchProcessor<T, R> implements Processor<T, R> {
+
+	/** デフォルトのバッチサイズ */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	/** エグゼキュータ(nullの場合、呼び出しスレッドで変換) */
+	private final Executor executor;
+	/** バッチサイズ */
+	private final int batchSize;
+	/** 最大保持数 */
+	private final int maxBuffer;
+
+	/** 上流 */
+	private volatile Subscription upstream;
+	/** 下流 */
+	private final AtomicReference<Subscriber<? super R>> downstream = new AtomicReference<Subscriber<? super R>>();
+
+	/** 下流からの要求数 */
+	private final AtomicLong requested = new AtomicLong();
+	/** 上流へ要求し未受信の数 */
+	private final AtomicLong outstanding = new AtomicLong();
+
+	/** 受信済み未変換の要素 */
+	private final ConcurrentLinkedQueue<T> inbox = new ConcurrentLinkedQueue<T>();
+	/** 受信済み未変換の要素数 */
+	private final AtomicInteger inboxSize = new AtomicInteger();
+	/** 変換済み未通知の要素 */
+	private final ConcurrentLinkedQueue<R> outbox = new ConcurrentLinkedQueue<R>();
+	/** 変換済み未通知の要素数 */
+	private final AtomicInteger outboxSize = new AtomicInteger();
+	/** 変換中の要素数 */
+	private volatile int inflight;
+
+	/** 上流の終了フラグ */
+	private volatile boolean upstreamDone;
+	/** エラー */
+	private volatile Throwable error;
+	/** キャンセルフラグ */
+	private volatile boolean cancelled;
+	/** 下流への終了通知済みフラグ */
+	private boolean terminated;
+
+	/** 排他制御用カウンタ */
+	private final AtomicInteger wip = new AtomicInteger();
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 * @param aBatchSize バッチサイズ
+	 */
+	protected AbstractBatchProcessor(final Executor aExecutor, final int aBatchSize) {
+		if (0 >= aBatchSize) {
+			throw new IllegalArgumentException("batchSize must be positive.");
+		}
+		executor = aExecutor;
+		batchSize = aBatchSize;
+		maxBuffer = aBatchSize * 2;
+	}
+
+	/**
+	 * 要素をまとめて変換する。
+	 * <p>
+	 * 戻り値の要素数と順序は引数と一致させること。
+	 * </p>
+	 *
+	 * @param batch 入力要素
+	 * @return 出力要素
+	 */
+	protected abstract List<R> process(final List<T> batch);
+
+	@Override
+	public final void onSubscribe(final Subscription subscription) {
+		if (null != upstream) {
+			subscription.cancel();
+			return;
+		}
+		upstream = subscription;
+		if (cancelled) {
+			subscription.cancel();
+			return;
+		}
+		drain();
+	}
+
+	@Override
+	public final void onNext(final T item) {
+		if (null == item) {
+			throw new NullPointerException("item is null.");
+		}
+		// 要求数の計算で要素が未計上とならないよう、受信数を加算してから未受信数を減算する
+		inbox.offer(item);
+		inboxSize.incrementAndGet();
+		outstanding.decrementAndGet();
+		drain();
+	}
+
+	@Override
+	public final void onError(final Throwable throwable) {
+		if (null == throwable) {
+			throw new NullPointerException("throwable is null.");
+		}
+		error = throwable;
+		upstreamDone = true;
+		drain();
+	}
+
+	@Override
+	public final void onComplete() {
+		upstreamDone = true;
+		drain();
+	}
+
+	@Override
+	public final void subscribe(final Subscriber<? super R> subscriber) {
+		if (!downstream.compareAndSet(null, subscriber)) {
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(final long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("This processor supports only one subscriber."));
+			return;
+		}
+
+		subscriber.onSubscribe(new Subscription() {
+			@Override
+			public void request(final long n) {
+				if (0 >= n) {
+					error = new IllegalArgumentException("request must be positive.");
+					cancelUpstream();
+				} else {
+					add(n);
+				}
+				drain();
+			}
+
+			@Override
+			public void cancel() {
+				cancelled = true;
+				cancelUpstream();
+			}
+		});
+		drain();
+	}
+
+	private void add(final long n) {
+		while (true) {
+			long current = requested.get();
+			long next = current + n;
+			if (0 > next) {
+				next = Long.MAX_VALUE;
+			}
+			if (requested.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	private void cancelUpstream() {
+		Subscription s = upstream;
+		if (null != s) {
+			s.cancel();
+		}
+	}
+
+	private void drain() {
+		if (0 != wip.getAndIncrement()) {
+			return;
+		}
+
+		int missed = 1;
+		while (true) {
+			if (cancelled) {
+				inbox.clear();
+				outbox.clear();
+				return;
+			}
+
+			Subscriber<? super R> subscriber = downstream.get();
+			if (null != subscriber && !terminated) {
+				// 変換済みの要素を通知
+				long r = requested.get();
+				long emitted = 0;
+				while (emitted != r) {
+					R value = outbox.poll();
+					if (null == value) {
+						break;
+					}
+					outboxSize.decrementAndGet();
+					subscriber.onNext(value);
+					emitted++;
+				}
+				if (0 < emitted && Long.MAX_VALUE != r) {
+					requested.addAndGet(-emitted);
+				}
+
+				Throwable ex = error;
+				if (null != ex) {
+					terminated = true;
+					inbox.clear();
+					outbox.clear();
+					subscriber.onError(ex);
+				} else {
+					Subscription s = upstream;
+
+					// 変換を開始
+					int pending = inboxSize.get();
+					if (null != s && 0 == inflight && 0 < pending && (batchSize <= pending || upstreamDone || 0 == outstanding.get())) {
+						List<T> batch = new ArrayList<T>(Math.min(pending, batchSize));
+						while (batch.size() < batchSize) {
+							T item = inbox.poll();
+							if (null == item) {
+								break;
+							}
+							batch.add(item);
+						}
+						inboxSize.addAndGet(-batch.size());
+						inflight = batch.size();
+						dispatch(batch);
+					}
+
+					// 上流へ要求
+					if (null != s && !upstreamDone) {
+						// 要素は未受信、受信済み、変換中、変換済みの順に移るため、移動元から先に読み込む
+						long waiting = outstanding.get();
+						int processing = inflight;
+						long want = Math.min(requested.get(), maxBuffer) - waiting - inboxSize.get() - processing - outboxSize.get();
+						if (0 < want) {
+							outstanding.addAndGet(want);
+							s.request(want);
+						}
+					}
+
+					// 完了を通知
+					if (upstreamDone && 0 == inflight && 0 == inboxSize.get() && 0 == outboxSize.get()) {
+						terminated = true;
+						subscriber.onComplete();
+					}
+				}
+			}
+
+			missed = wip.addAndGet(-missed);
+			if (0 == missed) {
+				break;
+			}
+		}
+	}
+
+	private void dispatch(final List<T> batch) {
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					List<R> results = process(batch);
+					for (R result : results) {
+						outbox.offer(result);
+					}
+					outboxSize.addAndGet(results.size());
+				} catch (Throwable ex) {
+					// Errorも終了の通知とし、購読者を待たせない
+					error = ex;
+					cancelUpstream();
+				} finally {
+					inflight = 0;
+				}
+				drain();
+			}
+		};
+
+		if (null == executor) {
+			task.run();
+		} else {
+			executor.execute(task);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.azkfw.geo.SokuchiAPI;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、測量計算サイトを利用して座標を変換するプロセッサの基底クラスです。
+ * <p>
+ * 入力は2要素の配列とし、要素毎に測地APIを呼び出す。
+ * 上流への要求数は下流の要求数を超えないため、リモート呼び出しの数は下流の要求数で制限される。
+ * </p>
+ *
+ * @param <R> 出力要素の型
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public abstract class AbstractRemoteProcessor<R> extends AbstractBatchProcessor<double[], R> {
+
+	/** デフォルトのバッチサイズ */
+	public static final int DEFAULT_REMOTE_BATCH_SIZE = 16;
+
+	/** 測地API */
+	private final SokuchiAPI api;
+	/** 系番号 */
+	private final Zone zone;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aApi 測地API
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 * @param aBatchSize バッチサイズ
+	 */
+	protected AbstractRemoteProcessor(final SokuchiAPI aApi, final Zone aZone, final Executor aExecutor, final int aBatchSize) {
+		super(aExecutor, aBatchSize);
+		api = aApi;
+		zone = aZone;
+	}
+
+	/**
+	 * 座標を変換する。
+	 *
+	 * @param api 測地API
+	 * @param zone 系番号
+	 * @param first 入力の1番目の値
+	 * @param second 入力の2番目の値
+	 * @return 変換結果(失敗した場合、<code>null</code>)
+	 */
+	protected abstract R convert(final SokuchiAPI api, final Zone zone, final double first, final double second);
+
+	@Override
+	protected final List<R> process(final List<double[]> batch) {
+		List<R> results = new ArrayList<R>(batch.size());
+		for (double[] value : batch) {
+			R entity = convert(api, zone, value[0], value[1]);
+			if (null == entity) {
+				throw new IllegalStateException(String.format("%s failed.[%f, %f]", getClass().getSimpleName(), value[0], value[1]));
+			}
+			results.add(entity);
+		}
+		return results;
+	}
+}
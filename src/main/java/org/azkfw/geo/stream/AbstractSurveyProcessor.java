@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、測量ユーティリティで座標をまとめて変換するプロセッサの基底クラスです。
+ * <p>
+ * 入力、出力は2要素の配列とし、バッチ毎に要素を配列へ展開して一括変換する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public abstract class AbstractSurveyProcessor extends AbstractBatchProcessor<double[], double[]> {
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+	/** 系番号 */
+	private final Zone zone;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 * @param aBatchSize バッチサイズ
+	 */
+	protected AbstractSurveyProcessor(final SurveyUtility aSurvey, final Zone aZone, final Executor aExecutor, final int aBatchSize) {
+		super(aExecutor, aBatchSize);
+		survey = aSurvey;
+		zone = aZone;
+	}
+
+	/**
+	 * 座標の配列を一括変換する。
+	 *
+	 * @param survey 測量ユーティリティ
+	 * @param zone 系番号
+	 * @param firsts 入力の1番目の値
+	 * @param seconds 入力の2番目の値
+	 * @param resultFirsts 結果格納先(1番目の値)
+	 * @param resultSeconds 結果格納先(2番目の値)
+	 */
+	protected abstract void convert(final SurveyUtility survey, final Zone zone, final double[] firsts, final double[] seconds,
+			final double[] resultFirsts, final double[] resultSeconds);
+
+	@Override
+	protected final List<double[]> process(final List<double[]> batch) {
+		int size = batch.size();
+		double[] firsts = new double[size];
+		double[] seconds = new double[size];
+		for (int i = 0; i < size; i++) {
+			double[] value = batch.get(i);
+			firsts[i] = value[0];
+			seconds[i] = value[1];
+		}
+
+		double[] resultFirsts = new double[size];
+		double[] resultSeconds = new double[size];
+		convert(survey, zone, firsts, seconds, resultFirsts, resultSeconds);
+
+		List<double[]> results = new ArrayList<double[]>(size);
+		for (int i = 0; i < size; i++) {
+			results.add(new double[] { resultFirsts[i], resultSeconds[i] });
+		}
+		return results;
+	}
+}
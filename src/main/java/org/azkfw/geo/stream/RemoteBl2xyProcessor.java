@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.concurrent.Executor;
+
+import org.azkfw.geo.SokuchiAPI;
+import org.azkfw.geo.SokuchiAPI.Bl2xyEntity;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、測量計算サイトを利用して緯度、経度を平面直角座標へ変換するプロセッサです。
+ * <p>
+ * 入力は{緯度[degree], 経度[degree]}の配列とする。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class RemoteBl2xyProcessor extends AbstractRemoteProcessor<Bl2xyEntity> {
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aApi 測地API
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 */
+	public RemoteBl2xyProcessor(final SokuchiAPI aApi, final Zone aZone, final Executor aExecutor) {
+		this(aApi, aZone, aExecutor, DEFAULT_REMOTE_BATCH_SIZE);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aApi 測地API
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 * @param aBatchSize バッチサイズ
+	 */
+	public RemoteBl2xyProcessor(final SokuchiAPI aApi, final Zone aZone, final Executor aExecutor, final int aBatchSize) {
+		super(aApi, aZone, aExecutor, aBatchSize);
+	}
+
+	@Override
+	protected Bl2xyEntity convert(final SokuchiAPI api, final Zone zone, final double latitude, final double longitude) {
+		return api.bl2xy(latitude, longitude, zone);
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.concurrent.Executor;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、平面直角座標を緯度、経度へ変換するプロセッサです。
+ * <p>
+ * 入力は{x[m], y[m]}、出力は{緯度[degree], 経度[degree]}の配列とする。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class Xy2blProcessor extends AbstractSurveyProcessor {
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 */
+	public Xy2blProcessor(final SurveyUtility aSurvey, final Zone aZone, final Executor aExecutor) {
+		this(aSurvey, aZone, aExecutor, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aExecutor エグゼキュータ(<code>null</code>の場合は呼び出しスレッドで変換)
+	 * @param aBatchSize バッチサイズ
+	 */
+	public Xy2blProcessor(final SurveyUtility aSurvey, final Zone aZone, final Executor aExecutor, final int aBatchSize) {
+		super(aSurvey, aZone, aExecutor, aBatchSize);
+	}
+
+	@Override
+	protected void convert(final SurveyUtility survey, final Zone zone, final double[] xs, final double[] ys, final double[] latitudes,
+			final double[] longitudes) {
+		survey.xy2bl(xs, ys, zone, latitudes, longitudes);
+	}
+}
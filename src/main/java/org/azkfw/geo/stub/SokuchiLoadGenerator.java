@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stub;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.azkfw.geo.SokuchiAPI;
+import org.azkfw.geo.SokuchiAPI.SokuchiKei;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、{@link SokuchiAPI}に負荷をかけ、スループットと応答時間を計測するクラスです。
+ * <p>
+ * 系の原点付近の座標をランダムに生成し、<code>bl2xy</code>と<code>xy2bl</code>を交互に呼び出す。
+ * <code>null</code>が返却された場合、または例外が発生した場合はエラーとして数える。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiLoadGenerator {
+
+	/**
+	 * このクラスは、計測結果を保持するクラスです。
+	 *
+	 * @author kawakicchi
+	 */
+	public static class Result {
+
+		/** 同時実行数 */
+		private final int concurrency;
+		/** エラー数 */
+		private final int errors;
+		/** 経過時間[ns] */
+		private final long elapsed;
+		/** 応答時間[ns](昇順) */
+		private final long[] latencies;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param aConcurrency 同時実行数
+		 * @param aErrors エラー数
+		 * @param aElapsed 経過時間[ns]
+		 * @param aLatencies 応答時間[ns]
+		 */
+		private Result(final int aConcurrency, final int aErrors, final long aElapsed, final long[] aLatencies) {
+			concurrency = aConcurrency;
+			errors = aErrors;
+			elapsed = aElapsed;
+			latencies = aLatencies;
+			Arrays.sort(latencies);
+		}
+
+		/**
+		 * 同時実行数を取得する。
+		 *
+		 * @return 同時実行数
+		 */
+		public int getConcurrency() {
+			return concurrency;
+		}
+
+		/**
+		 * リクエスト数を取得する。
+		 *
+		 * @return リクエスト数
+		 */
+		public int getRequests() {
+			return latencies.length;
+		}
+
+		/**
+		 * エラー数を取得する。
+		 *
+		 * @return エラー数
+		 */
+		public int getErrors() {
+			return errors;
+		}
+
+		/**
+		 * 経過時間を取得する。
+		 *
+		 * @return 経過時間[ms]
+		 */
+		public double getElapsed() {
+			return elapsed / 1e6;
+		}
+
+		/**
+		 * スループットを取得する。
+		 *
+		 * @return スループット[リクエスト/秒]
+		 */
+		public double getThroughput() {
+			return (0 == elapsed) ? 0.0 : latencies.length * 1e9 / elapsed;
+		}
+
+		/**
+		 * 応答時間のパーセンタイルを取得する。
+		 *
+		 * @param percentile パーセンタイル[0～100]
+		 * @return 応答時間[ms]
+		 */
+		public double getPercentile(final double percentile) {
+			if (0 == latencies.length) {
+				return 0.0;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+			return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("concurrency=%d requests=%d errors=%d elapsed=%.1fms throughput=%.1f/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+					concurrency, getRequests(), errors, getElapsed(), getThroughput(), getPercentile(50), getPercentile(90), getPercentile(99),
+					getPercentile(100));
+		}
+	}
+
+	/** 測地API */
+	private final SokuchiAPI api;
+	/** 系番号 */
+	private final Zone zone;
+
+	/** 原点の平面直角座標からの範囲[m] */
+	private double range = 50000.0;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aApi 測地API(複数スレッドから呼び出すため、コネクションプールを持つHTTPクライアントを利用すること)
+	 * @param aZone 系番号
+	 */
+	public SokuchiLoadGenerator(final SokuchiAPI aApi, final Zone aZone) {
+		api = aApi;
+		zone = aZone;
+	}
+
+	/**
+	 * コネクションプールを持つHTTPクライアントを生成する。
+	 *
+	 * @param maxConnections 最大コネクション数
+	 * @param timeout 接続、読み込みのタイムアウト[ms]
+	 * @return HTTPクライアント
+	 */
+	public static HttpClient createHttpClient(final int maxConnections, final int timeout) {
+		PoolingClientConnectionManager manager = new PoolingClientConnectionManager();
+		manager.setMaxTotal(maxConnections);
+		manager.setDefaultMaxPerRoute(maxConnections);
+
+		DefaultHttpClient client = new DefaultHttpClient(manager);
+		HttpParams params = client.getParams();
+		HttpConnectionParams.setConnectionTimeout(params, timeout);
+		HttpConnectionParams.setSoTimeout(params, timeout);
+		return client;
+	}
+
+	/**
+	 * 座標を生成する範囲を設定する。
+	 *
+	 * @param aRange 原点の平面直角座標からの範囲[m]
+	 */
+	public void setRange(final double aRange) {
+		range = aRange;
+	}
+
+	/**
+	 * 負荷をかけて計測する。
+	 *
+	 * @param concurrency 同時実行数
+	 * @param requests リクエスト数
+	 * @return 計測結果
+	 * @throws InterruptedException 割り込みが発生した場合
+	 */
+	public Result run(final int concurrency, final int requests) throws InterruptedException {
+		if (0 >= concurrency) {
+			throw new IllegalArgumentException("concurrency must be positive.");
+		}
+
+		// 座標は計測前に生成する
+		final double[] xs = new double[requests];
+		final double[] ys = new double[requests];
+		final double[] latitudes = new double[requests];
+		final double[] longitudes = new double[requests];
+		Random random = new Random(requests);
+		for (int i = 0; i < requests; i++) {
+			xs[i] = (random.nextDouble() * 2.0 - 1.0) * range;
+			ys[i] = (random.nextDouble() * 2.0 - 1.0) * range;
+		}
+		new SurveyUtility().xy2bl(xs, ys, zone, latitudes, longitudes);
+
+		final long[] latencies = new long[requests];
+		final AtomicInteger counter = new AtomicInteger();
+		final AtomicInteger errors = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(concurrency);
+
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		long start = System.nanoTime();
+		try {
+			for (int i = 0; i < concurrency; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							int index;
+							while (requests > (index = counter.getAndIncrement())) {
+								long begin = System.nanoTime();
+								if (!call(index, xs, ys, latitudes, longitudes)) {
+									errors.incrementAndGet();
+								}
+								latencies[index] = System.nanoTime() - begin;
+							}
+						} finally {
+							latch.countDown();
+						}
+					}
+				});
+			}
+			latch.await();
+		} finally {
+			executor.shutdownNow();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		return new Result(concurrency, errors.get(), elapsed, latencies);
+	}
+
+	private boolean call(final int index, final double[] xs, final double[] ys, final double[] latitudes, final double[] longitudes) {
+		try {
+			if (0 == index % 2) {
+				return null != api.bl2xy(latitudes[index], longitudes[index], zone);
+			} else {
+				return null != api.xy2bl(xs[index], ys[index], zone);
+			}
+		} catch (RuntimeException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * 負荷をかけて計測する。
+	 * <p>
+	 * 引数は「URL 同時実行数(カンマ区切り) リクエスト数」とする。URLに<code>-</code>を指定した場合、
+	 * {@link SokuchiStubServer}を起動して計測する。その場合は続けて「遅延時間[ms] エラーの発生率」を指定できる。
+	 * </p>
+	 *
+	 * @param args 引数
+	 * @throws Exception 計測に失敗した場合
+	 */
+	public static void main(final String[] args) throws Exception {
+		String url = (0 < args.length) ? args[0] : "-";
+		String[] concurrencies = ((1 < args.length) ? args[1] : "1,4,16,64").split(",");
+		int requests = (2 < args.length) ? Integer.parseInt(args[2]) : 2000;
+
+		SokuchiStubServer server = null;
+		if ("-".equals(url)) {
+			// Nagleアルゴリズムによる遅延(数十ms)が計測結果に含まれないようにする(初回の生成前のみ有効)
+			if (null == System.getProperty(SokuchiStubServer.PROPERTY_NODELAY)) {
+				System.setProperty(SokuchiStubServer.PROPERTY_NODELAY, "true");
+			}
+			long latency = (3 < args.length) ? Long.parseLong(args[3]) : 20;
+			double errorRate = (4 < args.length) ? Double.parseDouble(args[4]) : 0.0;
+			server = new SokuchiStubServer();
+			server.setLatency(latency / 2, latency * 3 / 2);
+			server.setErrorRate(errorRate, 503);
+			server.start();
+			url = server.getUrl();
+		}
+
+		try {
+			for (String concurrency : concurrencies) {
+				int n = Integer.parseInt(concurrency.trim());
+				HttpClient client = createHttpClient(n, 10000);
+				try {
+					SokuchiLoadGenerator generator = new SokuchiLoadGenerator(new SokuchiAPI(SokuchiKei.World, url, client), Zone.System09);
+					// ウォームアップ
+					generator.run(n, Math.min(requests, n * 10));
+					System.out.println(generator.run(n, requests));
+				} finally {
+					client.getConnectionManager().shutdown();
+				}
+			}
+		} finally {
+			if (null != server) {
+				server.stop();
+			}
+		}
+	}
+}
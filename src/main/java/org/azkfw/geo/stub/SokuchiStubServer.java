@@ -0,0 +1,351 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stub;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.azkfw.geo.server.SokuchiService;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * このクラスは、測量計算サイト(<code>bl2xy.pl</code>、<code>xy2bl.pl</code>)を模擬するスタブサーバです。
+ * <p>
+ * 記録済みのレスポンスがあればそれを返し、なければ{@link SokuchiService}で計算した結果を返す。
+ * 応答の遅延とエラーの発生率を設定でき、{@link org.azkfw.geo.SokuchiAPI}の負荷試験に利用する。
+ * </p>
+ * <p>
+ * 遅延はリクエスト処理スレッド上で発生させるため、スレッド数は試験する同時実行数以上とすること。
+ * </p>
+ * <p>
+ * Nagleアルゴリズムによる遅延(数十ms)を計測結果に含めない場合、呼び出し元でJVMの起動時(最初のサーバを生成する前)に
+ * システムプロパティ{@link #PROPERTY_NODELAY}を<code>true</code>とすること。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiStubServer {
+
+	/** コンテキストパス */
+	public static final String CONTEXT_PATH = "/sokuchi/surveycalc/surveycalc/";
+
+	/** TCP_NODELAYを指定するシステムプロパティ */
+	public static final String PROPERTY_NODELAY = "sun.net.httpserver.nodelay";
+
+	/** デフォルトのスレッド数 */
+	public static final int DEFAULT_THREADS = 64;
+
+	/** 変換処理 */
+	private final SokuchiService service = new SokuchiService();
+
+	/** 記録済みレスポンス(キー: 処理名?ソート済みパラメータ) */
+	private final Map<String, String> records = new ConcurrentHashMap<String, String>();
+
+	/** ポート番号 */
+	private final int port;
+	/** スレッド数 */
+	private final int threads;
+
+	/** 記録済みレスポンスがない場合に計算するか */
+	private volatile boolean compute = true;
+	/** 最小遅延時間[ms] */
+	private volatile long minLatency;
+	/** 最大遅延時間[ms] */
+	private volatile long maxLatency;
+	/** エラーの発生率[0～1] */
+	private volatile double errorRate;
+	/** エラー時のステータスコード */
+	private volatile int errorStatus = 503;
+
+	/** リクエスト数 */
+	private final AtomicLong requestCount = new AtomicLong();
+	/** エラー数 */
+	private final AtomicLong errorCount = new AtomicLong();
+
+	/** サーバ */
+	private HttpServer server;
+	/** エグゼキュータ */
+	private ExecutorService executor;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ポート番号は空いているポートとなる。
+	 * </p>
+	 */
+	public SokuchiStubServer() {
+		this(0);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aPort ポート番号(0の場合は空いているポート)
+	 */
+	public SokuchiStubServer(final int aPort) {
+		this(aPort, DEFAULT_THREADS);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aPort ポート番号(0の場合は空いているポート)
+	 * @param aThreads スレッド数
+	 */
+	public SokuchiStubServer(final int aPort, final int aThreads) {
+		if (0 >= aThreads) {
+			throw new IllegalArgumentException("threads must be positive.");
+		}
+		port = aPort;
+		threads = aThreads;
+	}
+
+	/**
+	 * 記録済みレスポンスがない場合に計算するかを設定する。
+	 * <p>
+	 * 計算しない場合、記録済みレスポンスがなければ404を返す。
+	 * </p>
+	 *
+	 * @param aCompute 計算する場合、<code>true</code>
+	 */
+	public void setCompute(final boolean aCompute) {
+		compute = aCompute;
+	}
+
+	/**
+	 * 遅延時間を設定する。
+	 * <p>
+	 * 遅延時間は最小値から最大値の間で一様に分布する。
+	 * </p>
+	 *
+	 * @param aMinLatency 最小遅延時間[ms]
+	 * @param aMaxLatency 最大遅延時間[ms]
+	 */
+	public void setLatency(final long aMinLatency, final long aMaxLatency) {
+		if (0 > aMinLatency || aMinLatency > aMaxLatency) {
+			throw new IllegalArgumentException(String.format("Invalid latency.[min: %d, max: %d]", aMinLatency, aMaxLatency));
+		}
+		minLatency = aMinLatency;
+		maxLatency = aMaxLatency;
+	}
+
+	/**
+	 * エラーの発生率を設定する。
+	 *
+	 * @param aErrorRate エラーの発生率[0～1]
+	 * @param aErrorStatus エラー時のステータスコード
+	 */
+	public void setErrorRate(final double aErrorRate, final int aErrorStatus) {
+		if (0.0 > aErrorRate || 1.0 < aErrorRate) {
+			throw new IllegalArgumentException("errorRate must be between 0 and 1.");
+		}
+		errorRate = aErrorRate;
+		errorStatus = aErrorStatus;
+	}
+
+	/**
+	 * レスポンスを記録する。
+	 *
+	 * @param aAlias 処理名(<code>bl2xy.pl</code>または<code>xy2bl.pl</code>)
+	 * @param aQuery クエリ文字列
+	 * @param aJson レスポンス(JSON)
+	 */
+	public void addRecord(final String aAlias, final String aQuery, final String aJson) {
+		records.put(createKey(aAlias, SokuchiService.parseQuery(aQuery)), aJson);
+	}
+
+	/**
+	 * 記録済みレスポンスを読み込む。
+	 * <p>
+	 * 1行に1レスポンスを「処理名 TAB クエリ文字列 TAB JSON」の形式で記述する。空行と#で始まる行は無視する。
+	 * </p>
+	 *
+	 * @param aReader リーダー
+	 * @return 読み込んだ件数
+	 * @throws IOException 読み込みに失敗した場合
+	 */
+	public int loadRecords(final Reader aReader) throws IOException {
+		int count = 0;
+		BufferedReader reader = new BufferedReader(aReader);
+		String line;
+		while (null != (line = reader.readLine())) {
+			if (0 == line.trim().length() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("\t", 3);
+			if (3 != fields.length) {
+				throw new IOException("Invalid record. " + line);
+			}
+			addRecord(fields[0], fields[1], fields[2]);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * サーバを開始する。
+	 *
+	 * @throws IOException 開始に失敗した場合
+	 */
+	public synchronized void start() throws IOException {
+		if (null != server) {
+			throw new IllegalStateException("Server already started.");
+		}
+		executor = Executors.newFixedThreadPool(threads);
+		server = HttpServer.create(new InetSocketAddress("localhost", port), threads);
+		server.createContext(CONTEXT_PATH, new HttpHandler() {
+			@Override
+			public void handle(final HttpExchange exchange) throws IOException {
+				try {
+					doHandle(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * サーバを停止する。
+	 */
+	public synchronized void stop() {
+		if (null != server) {
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+			executor = null;
+		}
+	}
+
+	/**
+	 * URLを取得する。
+	 *
+	 * @return URL({@link org.azkfw.geo.SokuchiAPI}に指定するURL)
+	 */
+	public synchronized String getUrl() {
+		if (null == server) {
+			throw new IllegalStateException("Server not started.");
+		}
+		return String.format("http://localhost:%d%s", server.getAddress().getPort(), CONTEXT_PATH);
+	}
+
+	/**
+	 * リクエスト数を取得する。
+	 *
+	 * @return リクエスト数
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * エラー数を取得する。
+	 *
+	 * @return エラー数(エラーを発生させた件数、不正なリクエストを含む)
+	 */
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	private void doHandle(final HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+
+		Random random = new Random();
+		long latency = minLatency + (long) (random.nextDouble() * (maxLatency - minLatency));
+		if (0 < latency) {
+			try {
+				TimeUnit.MILLISECONDS.sleep(latency);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+
+		if (0.0 < errorRate && random.nextDouble() < errorRate) {
+			errorCount.incrementAndGet();
+			send(exchange, errorStatus, error("injected"));
+			return;
+		}
+
+		String path = exchange.getRequestURI().getPath();
+		String alias = path.substring(path.lastIndexOf('/') + 1);
+		Map<String, String> params = SokuchiService.parseQuery(exchange.getRequestURI().getRawQuery());
+
+		String json = records.get(createKey(alias, params));
+		if (null == json && compute) {
+			try {
+				JsonObject result = service.convert(alias, params);
+				json = (null == result) ? null : result.toString();
+			} catch (IllegalArgumentException ex) {
+				errorCount.incrementAndGet();
+				send(exchange, 400, error(ex.getMessage()));
+				return;
+			}
+		}
+		if (null == json) {
+			send(exchange, 404, error("not found"));
+		} else {
+			send(exchange, 200, json);
+		}
+	}
+
+	private static String error(final String aMessage) {
+		JsonObject root = new JsonObject();
+		root.addProperty("error", aMessage);
+		return root.toString();
+	}
+
+	private static void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+		byte[] bytes = body.getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.flush();
+	}
+
+	private static String createKey(final String aAlias, final Map<String, String> aParams) {
+		StringBuilder sb = new StringBuilder(aAlias);
+		sb.append("?");
+		for (Map.Entry<String, String> entry : aParams.entrySet()) {
+			// 出力形式はレスポンスの内容に影響しないため、キーに含めない
+			if (!"outputType".equals(entry.getKey())) {
+				sb.append(entry.getKey()).append("=").append(entry.getValue()).append("&");
+			}
+		}
+		return sb.toString();
+	}
+}
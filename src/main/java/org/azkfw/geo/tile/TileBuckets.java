@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.tile;
+
+import java.util.Arrays;
+
+/**
+ * このクラスは、座標をタイルごとに振り分けた結果を保持するクラスです。
+ * <p>
+ * タイルIDの昇順にタイルを並べ、タイルごとの座標の位置を連続した<code>int</code>配列に格納する。
+ * タイル内の座標の位置は入力の順序を保持する。
+ * </p>
+ *
+ * <pre>
+ * TileBuckets buckets = TileBuckets.bucket(tileIds, 0, tileIds.length);
+ * int[] indices = buckets.getIndices();
+ * for (int i = 0; i &lt; buckets.size(); i++) {
+ * 	long tileId = buckets.getTileId(i);
+ * 	for (int j = buckets.getStart(i); j &lt; buckets.getEnd(i); j++) {
+ * 		// indices[j] は tileId に含まれる座標の位置
+ * 	}
+ * }
+ * </pre>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class TileBuckets {
+
+	/** タイルID(昇順) */
+	private final long[] tileIds;
+	/** タイルごとの開始位置(要素数はタイル数+1) */
+	private final int[] offsets;
+	/** 座標の位置 */
+	private final int[] indices;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aTileIds タイルID
+	 * @param aOffsets タイルごとの開始位置
+	 * @param aIndices 座標の位置
+	 */
+	private TileBuckets(final long[] aTileIds, final int[] aOffsets, final int[] aIndices) {
+		tileIds = aTileIds;
+		offsets = aOffsets;
+		indices = aIndices;
+	}
+
+	/**
+	 * 座標をタイルごとに振り分ける。
+	 *
+	 * @param pointTileIds 座標ごとのタイルID({@link WebMercator#bl2tile}、{@link WebMercator#xy2tile}の結果)
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @return 振り分け結果
+	 */
+	public static TileBuckets bucket(final long[] pointTileIds, final int start, final int end) {
+		int length = end - start;
+
+		// タイルIDの重複を除いて昇順に並べる
+		long[] sorted = Arrays.copyOfRange(pointTileIds, start, end);
+		Arrays.sort(sorted);
+		int size = 0;
+		for (int i = 0; i < length; i++) {
+			if (0 == size || sorted[size - 1] != sorted[i]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+		long[] tileIds = Arrays.copyOf(sorted, size);
+
+		// タイルごとの座標数を数え、開始位置を求める
+		int[] buckets = new int[length];
+		int[] offsets = new int[size + 1];
+		for (int i = 0; i < length; i++) {
+			int bucket = Arrays.binarySearch(tileIds, pointTileIds[start + i]);
+			buckets[i] = bucket;
+			offsets[bucket + 1]++;
+		}
+		for (int i = 0; i < size; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		// 座標の位置を格納する
+		int[] positions = Arrays.copyOf(offsets, size);
+		int[] indices = new int[length];
+		for (int i = 0; i < length; i++) {
+			indices[positions[buckets[i]]++] = start + i;
+		}
+
+		return new TileBuckets(tileIds, offsets, indices);
+	}
+
+	/**
+	 * タイル数を取得する。
+	 *
+	 * @return タイル数
+	 */
+	public int size() {
+		return tileIds.length;
+	}
+
+	/**
+	 * タイルIDを取得する。
+	 *
+	 * @param bucket タイルの位置
+	 * @return タイルID
+	 */
+	public long getTileId(final int bucket) {
+		return tileIds[bucket];
+	}
+
+	/**
+	 * タイルの位置を検索する。
+	 *
+	 * @param tileId タイルID
+	 * @return タイルの位置、存在しない場合は負の値
+	 */
+	public int indexOf(final long tileId) {
+		int bucket = Arrays.binarySearch(tileIds, tileId);
+		return (0 <= bucket) ? bucket : -1;
+	}
+
+	/**
+	 * タイルに含まれる座標の{@link #getIndices()}における開始位置を取得する。
+	 *
+	 * @param bucket タイルの位置
+	 * @return 開始位置
+	 */
+	public int getStart(final int bucket) {
+		return offsets[bucket];
+	}
+
+	/**
+	 * タイルに含まれる座標の{@link #getIndices()}における終了位置を取得する。
+	 *
+	 * @param bucket タイルの位置
+	 * @return 終了位置(この位置は含まない)
+	 */
+	public int getEnd(final int bucket) {
+		return offsets[bucket + 1];
+	}
+
+	/**
+	 * タイルに含まれる座標数を取得する。
+	 *
+	 * @param bucket タイルの位置
+	 * @return 座標数
+	 */
+	public int getCount(final int bucket) {
+		return offsets[bucket + 1] - offsets[bucket];
+	}
+
+	/**
+	 * タイルごとに並べた座標の位置を取得する。
+	 * <p>
+	 * 内部の配列を返すため、変更しないこと。
+	 * </p>
+	 *
+	 * @return 座標の位置
+	 */
+	public int[] getIndices() {
+		return indices;
+	}
+}
@@ -0,0 +1,431 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.tile;
+
+import org.azkfw.geo.PlaneConverter;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、Webメルカトル座標、XYZタイル座標を扱うユーティリティクラスです。
+ * <p>
+ * 緯度、経度(WGS84)をWebメルカトル座標[m]、ピクセル座標、タイル座標へ変換する。
+ * ピクセル座標、タイル座標は北西端を原点とし、Yは南方向を正とする(XYZ方式)。
+ * 緯度は{@link #MAX_LATITUDE}の範囲に丸める。
+ * </p>
+ * <p>
+ * タイルは{@link #tileId(int, int, int)}でズームレベル、X、Yを1つの<code>long</code>に格納して扱う。
+ * 一括変換の処理は引数の配列へ結果を格納し、座標ごとのインスタンスを生成しない。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class WebMercator {
+
+	/** 地球の半径[m] */
+	public static final double RADIUS = 6378137.0;
+	/** 赤道の半周長[m] */
+	public static final double ORIGIN_SHIFT = Math.PI * RADIUS;
+	/** 最大緯度[degree] */
+	public static final double MAX_LATITUDE = 85.0511287798066;
+
+	/** タイルのサイズ[pixel] */
+	public static final int TILE_SIZE = 256;
+	/** 最大ズームレベル */
+	public static final int MAX_ZOOM = 29;
+
+	/** 平面直角座標からの変換時の作業領域の要素数 */
+	public static final int CHUNK_SIZE = 1024;
+
+	/** タイルIDのズームレベルの位置 */
+	private static final int ZOOM_SHIFT = 58;
+	/** タイルIDのXの位置 */
+	private static final int X_SHIFT = 29;
+	/** タイルIDのX、Yのマスク */
+	private static final long TILE_MASK = (1L << 29) - 1;
+
+	/**
+	 * コンストラクタ
+	 */
+	private WebMercator() {
+
+	}
+
+	/**
+	 * 経度からWebメルカトル座標のXを求める
+	 *
+	 * @param longitude 経度[degree]
+	 * @return X[m]
+	 */
+	public static double lon2mx(final double longitude) {
+		return Math.toRadians(longitude) * RADIUS;
+	}
+
+	/**
+	 * 緯度からWebメルカトル座標のYを求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @return Y[m]
+	 */
+	public static double lat2my(final double latitude) {
+		double sin = Math.sin(Math.toRadians(clipLatitude(latitude)));
+		return 0.5 * Math.log((1.0 + sin) / (1.0 - sin)) * RADIUS;
+	}
+
+	/**
+	 * Webメルカトル座標のXから経度を求める
+	 *
+	 * @param mx X[m]
+	 * @return 経度[degree]
+	 */
+	public static double mx2lon(final double mx) {
+		return Math.toDegrees(mx / RADIUS);
+	}
+
+	/**
+	 * Webメルカトル座標のYから緯度を求める
+	 *
+	 * @param my Y[m]
+	 * @return 緯度[degree]
+	 */
+	public static double my2lat(final double my) {
+		return Math.toDegrees(2.0 * Math.atan(Math.exp(my / RADIUS)) - Math.PI / 2.0);
+	}
+
+	/**
+	 * 指定ズームレベルの全体のサイズを求める
+	 *
+	 * @param zoom ズームレベル
+	 * @return サイズ[pixel]
+	 */
+	public static double mapSize(final int zoom) {
+		checkZoom(zoom);
+		return (double) TILE_SIZE * (1L << zoom);
+	}
+
+	/**
+	 * 経度からピクセル座標のXを求める
+	 *
+	 * @param longitude 経度[degree]
+	 * @param zoom ズームレベル
+	 * @return X[pixel]
+	 */
+	public static double lon2px(final double longitude, final int zoom) {
+		return (lon2mx(longitude) + ORIGIN_SHIFT) / (2.0 * ORIGIN_SHIFT) * mapSize(zoom);
+	}
+
+	/**
+	 * 緯度からピクセル座標のYを求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param zoom ズームレベル
+	 * @return Y[pixel]
+	 */
+	public static double lat2py(final double latitude, final int zoom) {
+		return (ORIGIN_SHIFT - lat2my(latitude)) / (2.0 * ORIGIN_SHIFT) * mapSize(zoom);
+	}
+
+	/**
+	 * ピクセル座標のXから経度を求める
+	 *
+	 * @param px X[pixel]
+	 * @param zoom ズームレベル
+	 * @return 経度[degree]
+	 */
+	public static double px2lon(final double px, final int zoom) {
+		return mx2lon(px / mapSize(zoom) * 2.0 * ORIGIN_SHIFT - ORIGIN_SHIFT);
+	}
+
+	/**
+	 * ピクセル座標のYから緯度を求める
+	 *
+	 * @param py Y[pixel]
+	 * @param zoom ズームレベル
+	 * @return 緯度[degree]
+	 */
+	public static double py2lat(final double py, final int zoom) {
+		return my2lat(ORIGIN_SHIFT - py / mapSize(zoom) * 2.0 * ORIGIN_SHIFT);
+	}
+
+	/**
+	 * 経度からタイル座標のXを求める
+	 *
+	 * @param longitude 経度[degree]
+	 * @param zoom ズームレベル
+	 * @return X
+	 */
+	public static int lon2tile(final double longitude, final int zoom) {
+		return pixel2tile(lon2px(longitude, zoom), zoom);
+	}
+
+	/**
+	 * 緯度からタイル座標のYを求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param zoom ズームレベル
+	 * @return Y
+	 */
+	public static int lat2tile(final double latitude, final int zoom) {
+		return pixel2tile(lat2py(latitude, zoom), zoom);
+	}
+
+	/**
+	 * タイルの西端の経度を求める
+	 *
+	 * @param x タイル座標のX
+	 * @param zoom ズームレベル
+	 * @return 経度[degree]
+	 */
+	public static double tile2lon(final int x, final int zoom) {
+		return px2lon((double) x * TILE_SIZE, zoom);
+	}
+
+	/**
+	 * タイルの北端の緯度を求める
+	 *
+	 * @param y タイル座標のY
+	 * @param zoom ズームレベル
+	 * @return 緯度[degree]
+	 */
+	public static double tile2lat(final int y, final int zoom) {
+		return py2lat((double) y * TILE_SIZE, zoom);
+	}
+
+	/**
+	 * タイルIDを求める
+	 *
+	 * @param zoom ズームレベル
+	 * @param x タイル座標のX
+	 * @param y タイル座標のY
+	 * @return タイルID
+	 */
+	public static long tileId(final int zoom, final int x, final int y) {
+		return ((long) zoom << ZOOM_SHIFT) | ((long) x << X_SHIFT) | y;
+	}
+
+	/**
+	 * タイルIDからズームレベルを取得する。
+	 *
+	 * @param tileId タイルID
+	 * @return ズームレベル
+	 */
+	public static int getZoom(final long tileId) {
+		return (int) (tileId >>> ZOOM_SHIFT);
+	}
+
+	/**
+	 * タイルIDからタイル座標のXを取得する。
+	 *
+	 * @param tileId タイルID
+	 * @return X
+	 */
+	public static int getTileX(final long tileId) {
+		return (int) ((tileId >>> X_SHIFT) & TILE_MASK);
+	}
+
+	/**
+	 * タイルIDからタイル座標のYを取得する。
+	 *
+	 * @param tileId タイルID
+	 * @return Y
+	 */
+	public static int getTileY(final long tileId) {
+		return (int) (tileId & TILE_MASK);
+	}
+
+	/**
+	 * 指定ズームレベルの上位タイルのタイルIDを求める
+	 * <p>
+	 * 最大ズームレベルで求めたタイルIDから、再計算せずに各ズームレベルのタイルIDを求めるために使用する。
+	 * </p>
+	 *
+	 * @param tileId タイルID
+	 * @param zoom ズームレベル(タイルIDのズームレベル以下)
+	 * @return タイルID
+	 */
+	public static long parent(final long tileId, final int zoom) {
+		int shift = getZoom(tileId) - zoom;
+		if (0 > shift || 0 > zoom) {
+			throw new IllegalArgumentException(String.format("Invalid zoom.[tile: %d, zoom: %d]", getZoom(tileId), zoom));
+		}
+		return tileId(zoom, getTileX(tileId) >>> shift, getTileY(tileId) >>> shift);
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲からWebメルカトル座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param mxs 結果格納先(X[m])
+	 * @param mys 結果格納先(Y[m])
+	 */
+	public static void bl2mercator(final double[] latitudes, final double[] longitudes, final int start, final int end, final double[] mxs,
+			final double[] mys) {
+		for (int i = start; i < end; i++) {
+			mxs[i] = lon2mx(longitudes[i]);
+			mys[i] = lat2my(latitudes[i]);
+		}
+	}
+
+	/**
+	 * Webメルカトル座標の配列の指定範囲から緯度、経度を求める
+	 *
+	 * @param mxs X[m]
+	 * @param mys Y[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 */
+	public static void mercator2bl(final double[] mxs, final double[] mys, final int start, final int end, final double[] latitudes,
+			final double[] longitudes) {
+		for (int i = start; i < end; i++) {
+			latitudes[i] = my2lat(mys[i]);
+			longitudes[i] = mx2lon(mxs[i]);
+		}
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲からピクセル座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zoom ズームレベル
+	 * @param pxs 結果格納先(X[pixel])
+	 * @param pys 結果格納先(Y[pixel])
+	 */
+	public static void bl2pixel(final double[] latitudes, final double[] longitudes, final int start, final int end, final int zoom,
+			final double[] pxs, final double[] pys) {
+		double scale = mapSize(zoom) / (2.0 * ORIGIN_SHIFT);
+		for (int i = start; i < end; i++) {
+			pxs[i] = (lon2mx(longitudes[i]) + ORIGIN_SHIFT) * scale;
+			pys[i] = (ORIGIN_SHIFT - lat2my(latitudes[i])) * scale;
+		}
+	}
+
+	/**
+	 * 緯度、経度の配列の指定範囲からタイルIDを求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zoom ズームレベル
+	 * @param tileIds 結果格納先(タイルID)
+	 */
+	public static void bl2tile(final double[] latitudes, final double[] longitudes, final int start, final int end, final int zoom,
+			final long[] tileIds) {
+		checkZoom(zoom);
+		tile(latitudes, longitudes, start, end - start, zoom, tileIds, start);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲からピクセル座標を求める
+	 *
+	 * @param survey 変換処理(厳密計算または近似計算の測量ユーティリティ)
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param zoom ズームレベル
+	 * @param pxs 結果格納先(X[pixel])
+	 * @param pys 結果格納先(Y[pixel])
+	 */
+	public static void xy2pixel(final PlaneConverter survey, final double[] xs, final double[] ys, final int start, final int end, final Zone zone,
+			final int zoom, final double[] pxs, final double[] pys) {
+		// 緯度、経度を結果格納先へ一時的に格納する
+		survey.xy2bl(xs, ys, start, end, zone, pys, pxs);
+		bl2pixel(pys, pxs, start, end, zoom, pxs, pys);
+	}
+
+	/**
+	 * 平面直角座標の配列の指定範囲からタイルIDを求める
+	 *
+	 * @param survey 変換処理(厳密計算または近似計算の測量ユーティリティ)
+	 * @param xs X座標[m]
+	 * @param ys Y座標[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param zone 系番号
+	 * @param zoom ズームレベル
+	 * @param tileIds 結果格納先(タイルID)
+	 */
+	public static void xy2tile(final PlaneConverter survey, final double[] xs, final double[] ys, final int start, final int end, final Zone zone,
+			final int zoom, final long[] tileIds) {
+		checkZoom(zoom);
+		int size = Math.min(end - start, CHUNK_SIZE);
+		double[] x = new double[size];
+		double[] y = new double[size];
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		for (int offset = start; offset < end; offset += size) {
+			int n = Math.min(size, end - offset);
+			System.arraycopy(xs, offset, x, 0, n);
+			System.arraycopy(ys, offset, y, 0, n);
+			survey.xy2bl(x, y, 0, n, zone, latitudes, longitudes);
+			tile(latitudes, longitudes, 0, n, zoom, tileIds, offset);
+		}
+	}
+
+	/**
+	 * 緯度、経度の配列からタイルIDを求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param pos 開始位置
+	 * @param length 要素数
+	 * @param zoom ズームレベル
+	 * @param tileIds 結果格納先(タイルID)
+	 * @param tilePos 結果格納先の開始位置
+	 */
+	private static void tile(final double[] latitudes, final double[] longitudes, final int pos, final int length, final int zoom,
+			final long[] tileIds, final int tilePos) {
+		double scale = mapSize(zoom) / (2.0 * ORIGIN_SHIFT * TILE_SIZE);
+		int max = (1 << zoom) - 1;
+		long base = (long) zoom << ZOOM_SHIFT;
+		for (int i = 0; i < length; i++) {
+			int x = clip((int) Math.floor((lon2mx(longitudes[pos + i]) + ORIGIN_SHIFT) * scale), max);
+			int y = clip((int) Math.floor((ORIGIN_SHIFT - lat2my(latitudes[pos + i])) * scale), max);
+			tileIds[tilePos + i] = base | ((long) x << X_SHIFT) | y;
+		}
+	}
+
+	private static int pixel2tile(final double pixel, final int zoom) {
+		return clip((int) Math.floor(pixel / TILE_SIZE), (1 << zoom) - 1);
+	}
+
+	private static int clip(final int value, final int max) {
+		return (0 > value) ? 0 : ((max < value) ? max : value);
+	}
+
+	private static double clipLatitude(final double latitude) {
+		return (-MAX_LATITUDE > latitude) ? -MAX_LATITUDE : ((MAX_LATITUDE < latitude) ? MAX_LATITUDE : latitude);
+	}
+
+	private static void checkZoom(final int zoom) {
+		if (0 > zoom || MAX_ZOOM < zoom) {
+			throw new IllegalArgumentException(String.format("zoom must be between 0 and %d.[zoom: %d]", MAX_ZOOM, zoom));
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、緯度、経度の軌跡を平面直角座標上で逐次処理するクラスの基底クラスです。
+ * <p>
+ * 入力の座標はバッチサイズ単位でまとめて平面直角座標へ変換し、1座標ずつ{@link #process}へ渡す。
+ * 処理結果の座標は確定した時点で{@link TrackListener}へ通知する。
+ * {@link #flush()}で軌跡を終了し、保持している座標を全て処理する。その後は新しい軌跡として再利用できる。
+ * </p>
+ * <p>
+ * 座標はバッチサイズに達するまで処理しないため、入力の間隔が長い場合(1秒間隔で既定のバッチサイズでは約17分)は
+ * {@link #drain()}で軌跡を終了せずに変換待ちの座標を処理する。
+ * </p>
+ * <p>
+ * 作業領域を保持するため、スレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public abstract class AbstractTrackProcessor {
+
+	/** デフォルトのバッチサイズ */
+	public static final int DEFAULT_BATCH_SIZE = 1024;
+
+	/** 測量ユーティリティ */
+	private final SurveyUtility survey;
+	/** 系番号 */
+	private final Zone zone;
+	/** リスナー */
+	private final TrackListener listener;
+
+	/** 緯度[degree] */
+	private final double[] latitudes;
+	/** 経度[degree] */
+	private final double[] longitudes;
+	/** X座標[m] */
+	private final double[] xs;
+	/** Y座標[m] */
+	private final double[] ys;
+	/** 変換待ちの座標数 */
+	private int pending;
+
+	/** 次の入力の座標の位置 */
+	private long index;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aBatchSize バッチサイズ
+	 * @param aListener リスナー
+	 */
+	protected AbstractTrackProcessor(final SurveyUtility aSurvey, final Zone aZone, final int aBatchSize, final TrackListener aListener) {
+		if (0 >= aBatchSize) {
+			throw new IllegalArgumentException("batchSize must be positive.");
+		}
+		survey = aSurvey;
+		zone = aZone;
+		listener = aListener;
+		latitudes = new double[aBatchSize];
+		longitudes = new double[aBatchSize];
+		xs = new double[aBatchSize];
+		ys = new double[aBatchSize];
+	}
+
+	/**
+	 * 座標を追加する。
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 */
+	public final void add(final double latitude, final double longitude) {
+		latitudes[pending] = latitude;
+		longitudes[pending] = longitude;
+		pending++;
+		if (latitudes.length == pending) {
+			drain();
+		}
+	}
+
+	/**
+	 * 座標の配列の指定範囲を追加する。
+	 *
+	 * @param aLatitudes 緯度[degree]
+	 * @param aLongitudes 経度[degree]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 */
+	public final void add(final double[] aLatitudes, final double[] aLongitudes, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			add(aLatitudes[i], aLongitudes[i]);
+		}
+	}
+
+	/**
+	 * 変換待ちの座標を処理する。
+	 * <p>
+	 * 軌跡は終了しないため、続けて座標を追加できる。確定した座標はこの時点で通知する。
+	 * </p>
+	 */
+	public final void drain() {
+		if (0 == pending) {
+			return;
+		}
+		survey.bl2xy(latitudes, longitudes, 0, pending, zone, xs, ys);
+		for (int i = 0; i < pending; i++) {
+			process(index++, latitudes[i], longitudes[i], xs[i], ys[i]);
+		}
+		pending = 0;
+	}
+
+	/**
+	 * 軌跡を終了し、保持している座標を全て処理する。
+	 */
+	public final void flush() {
+		drain();
+		finish();
+		index = 0;
+	}
+
+	/**
+	 * 座標を処理する。
+	 *
+	 * @param pointIndex 入力の座標の位置
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 */
+	protected abstract void process(final long pointIndex, final double latitude, final double longitude, final double x, final double y);
+
+	/**
+	 * 軌跡の終了時に、保持している座標を処理する。
+	 * <p>
+	 * 処理後は新しい軌跡を受け付けられる状態とすること。
+	 * </p>
+	 */
+	protected abstract void finish();
+
+	/**
+	 * 座標を確定し、リスナーへ通知する。
+	 *
+	 * @param pointIndex 入力の座標の位置
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 */
+	protected final void emit(final long pointIndex, final double latitude, final double longitude, final double x, final double y) {
+		listener.point(pointIndex, latitude, longitude, x, y);
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、軌跡をDouglas-Peucker法で逐次単純化するクラスです。
+ * <p>
+ * 座標を窓サイズまで保持し、窓の先頭と末尾を端点として単純化する。
+ * 窓の途中で残った座標を確定して通知し、最後に残った座標から次の窓を開始する。
+ * 途中で残る座標がない場合は窓の末尾の座標を確定する。
+ * 削除した座標は、前後の確定した座標を結ぶ線分から許容距離以内となる。
+ * </p>
+ * <p>
+ * 保持する座標数は窓サイズを超えない。軌跡の最初と最後の座標は必ず残る。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class DouglasPeuckerSimplifier extends AbstractTrackProcessor {
+
+	/** デフォルトの窓サイズ */
+	public static final int DEFAULT_WINDOW_SIZE = 256;
+
+	/** 許容距離の2乗[m^2] */
+	private final double tolerance2;
+
+	/** 窓 */
+	private final TrackWindow window;
+	/** 残す座標 */
+	private final boolean[] keeps;
+	/** 未処理の区間(開始位置、終了位置) */
+	private final int[] stack;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aTolerance 許容距離[m]
+	 * @param aListener リスナー
+	 */
+	public DouglasPeuckerSimplifier(final SurveyUtility aSurvey, final Zone aZone, final double aTolerance, final TrackListener aListener) {
+		this(aSurvey, aZone, aTolerance, DEFAULT_WINDOW_SIZE, DEFAULT_BATCH_SIZE, aListener);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aTolerance 許容距離[m]
+	 * @param aWindowSize 窓サイズ(3以上)
+	 * @param aBatchSize バッチサイズ
+	 * @param aListener リスナー
+	 */
+	public DouglasPeuckerSimplifier(final SurveyUtility aSurvey, final Zone aZone, final double aTolerance, final int aWindowSize,
+			final int aBatchSize, final TrackListener aListener) {
+		super(aSurvey, aZone, aBatchSize, aListener);
+		if (3 > aWindowSize) {
+			throw new IllegalArgumentException("windowSize must be at least 3.");
+		}
+		tolerance2 = aTolerance * aTolerance;
+		window = new TrackWindow(aWindowSize);
+		keeps = new boolean[aWindowSize];
+		stack = new int[aWindowSize * 2];
+	}
+
+	@Override
+	protected void process(final long pointIndex, final double latitude, final double longitude, final double x, final double y) {
+		if (0 == window.size()) {
+			// 軌跡の最初の座標
+			emit(pointIndex, latitude, longitude, x, y);
+		}
+		window.add(pointIndex, latitude, longitude, x, y);
+		if (window.isFull()) {
+			simplify(false);
+		}
+	}
+
+	@Override
+	protected void finish() {
+		if (1 < window.size()) {
+			simplify(true);
+		}
+		window.clear();
+	}
+
+	private void simplify(final boolean last) {
+		int n = window.size();
+		douglasPeucker(n);
+
+		if (last) {
+			emitRange(1, n);
+			return;
+		}
+
+		int anchor = n - 1;
+		for (int i = n - 2; i > 0; i--) {
+			if (keeps[i]) {
+				anchor = i;
+				break;
+			}
+		}
+		// 途中で残る座標がない場合は末尾を、ある場合は最後に残った座標までを確定する
+		emitRange(1, anchor + 1);
+		window.retainFrom(anchor);
+	}
+
+	private void emitRange(final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			if (keeps[i]) {
+				emit(window.indices[i], window.latitudes[i], window.longitudes[i], window.xs[i], window.ys[i]);
+			}
+		}
+	}
+
+	private void douglasPeucker(final int n) {
+		double[] xs = window.xs;
+		double[] ys = window.ys;
+		for (int i = 0; i < n; i++) {
+			keeps[i] = false;
+		}
+		keeps[0] = true;
+		keeps[n - 1] = true;
+
+		int top = 0;
+		stack[top++] = 0;
+		stack[top++] = n - 1;
+		while (0 < top) {
+			int end = stack[--top];
+			int start = stack[--top];
+
+			double ax = xs[start];
+			double ay = ys[start];
+			double dx = xs[end] - ax;
+			double dy = ys[end] - ay;
+			double length2 = dx * dx + dy * dy;
+
+			int farthest = -1;
+			double max = tolerance2;
+			for (int i = start + 1; i < end; i++) {
+				double d2 = distance2(xs[i] - ax, ys[i] - ay, dx, dy, length2);
+				if (max < d2) {
+					max = d2;
+					farthest = i;
+				}
+			}
+			if (-1 != farthest) {
+				keeps[farthest] = true;
+				stack[top++] = start;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = end;
+			}
+		}
+	}
+
+	/**
+	 * 点から線分までの距離の2乗を求める
+	 *
+	 * @param px 線分の始点からの点のX
+	 * @param py 線分の始点からの点のY
+	 * @param dx 線分のX方向の長さ
+	 * @param dy 線分のY方向の長さ
+	 * @param length2 線分の長さの2乗
+	 * @return 距離の2乗
+	 */
+	static double distance2(final double px, final double py, final double dx, final double dy, final double length2) {
+		if (0.0 == length2) {
+			return px * px + py * py;
+		}
+		double t = (px * dx + py * dy) / length2;
+		if (0.0 >= t) {
+			return px * px + py * py;
+		} else if (1.0 <= t) {
+			double ex = px - dx;
+			double ey = py - dy;
+			return ex * ex + ey * ey;
+		}
+		double cross = px * dy - py * dx;
+		return cross * cross / length2;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+/**
+ * このインターフェースは、軌跡の処理結果の座標を受け取るリスナーです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public interface TrackListener {
+
+	/**
+	 * 座標を受け取る。
+	 *
+	 * @param index 入力の座標の位置(補間した座標の場合は直前の入力の座標の位置)
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 */
+	void point(long index, double latitude, double longitude, double x, double y);
+}
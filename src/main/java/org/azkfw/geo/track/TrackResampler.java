@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、軌跡を一定距離ごとの座標に逐次再標本化するクラスです。
+ * <p>
+ * 軌跡の最初の座標から、平面直角座標上の経路に沿った距離が間隔の倍数となる位置の座標を通知する。
+ * 軌跡の最後の座標も通知する。
+ * 補間した座標の緯度、経度は前後の座標の緯度、経度を線形補間して求める(座標間の距離が短い場合の近似)。
+ * </p>
+ * <p>
+ * 直前の1座標のみを保持する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class TrackResampler extends AbstractTrackProcessor {
+
+	/** 間隔[m] */
+	private final double interval;
+
+	/** 直前の座標があるか */
+	private boolean hasPrev;
+	/** 直前の座標の位置 */
+	private long prevIndex;
+	/** 直前の緯度[degree] */
+	private double prevLatitude;
+	/** 直前の経度[degree] */
+	private double prevLongitude;
+	/** 直前のX座標[m] */
+	private double prevX;
+	/** 直前のY座標[m] */
+	private double prevY;
+	/** 直前の座標から次に通知する位置までの距離[m] */
+	private double remaining;
+	/** 直前の座標を通知済みか */
+	private boolean prevEmitted;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aInterval 間隔[m]
+	 * @param aListener リスナー
+	 */
+	public TrackResampler(final SurveyUtility aSurvey, final Zone aZone, final double aInterval, final TrackListener aListener) {
+		this(aSurvey, aZone, aInterval, DEFAULT_BATCH_SIZE, aListener);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aInterval 間隔[m]
+	 * @param aBatchSize バッチサイズ
+	 * @param aListener リスナー
+	 */
+	public TrackResampler(final SurveyUtility aSurvey, final Zone aZone, final double aInterval, final int aBatchSize,
+			final TrackListener aListener) {
+		super(aSurvey, aZone, aBatchSize, aListener);
+		if (!(0.0 < aInterval)) {
+			throw new IllegalArgumentException("interval must be positive.");
+		}
+		interval = aInterval;
+	}
+
+	@Override
+	protected void process(final long pointIndex, final double latitude, final double longitude, final double x, final double y) {
+		if (!hasPrev) {
+			// 軌跡の最初の座標
+			emit(pointIndex, latitude, longitude, x, y);
+			remaining = interval;
+			prevEmitted = true;
+		} else {
+			double dx = x - prevX;
+			double dy = y - prevY;
+			double length = Math.sqrt(dx * dx + dy * dy);
+			double position = remaining;
+			boolean emitted = prevEmitted && 0.0 == length;
+			while (position <= length) {
+				if (position == length) {
+					// 入力の座標と一致する場合はその座標を通知する
+					emit(pointIndex, latitude, longitude, x, y);
+					emitted = true;
+				} else {
+					double t = position / length;
+					emit(prevIndex, prevLatitude + (latitude - prevLatitude) * t, prevLongitude + (longitude - prevLongitude) * t, prevX + dx * t,
+							prevY + dy * t);
+				}
+				position += interval;
+			}
+			remaining = position - length;
+			prevEmitted = emitted;
+		}
+		hasPrev = true;
+		prevIndex = pointIndex;
+		prevLatitude = latitude;
+		prevLongitude = longitude;
+		prevX = x;
+		prevY = y;
+	}
+
+	@Override
+	protected void finish() {
+		// 最後の座標が通知済みでない場合は通知する
+		if (hasPrev && !prevEmitted) {
+			emit(prevIndex, prevLatitude, prevLongitude, prevX, prevY);
+		}
+		hasPrev = false;
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+/**
+ * このクラスは、軌跡の座標を一定数まで保持するクラスです。
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+final class TrackWindow {
+
+	/** 入力の座標の位置 */
+	final long[] indices;
+	/** 緯度[degree] */
+	final double[] latitudes;
+	/** 経度[degree] */
+	final double[] longitudes;
+	/** X座標[m] */
+	final double[] xs;
+	/** Y座標[m] */
+	final double[] ys;
+
+	/** 座標数 */
+	private int size;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aCapacity 最大座標数
+	 */
+	TrackWindow(final int aCapacity) {
+		indices = new long[aCapacity];
+		latitudes = new double[aCapacity];
+		longitudes = new double[aCapacity];
+		xs = new double[aCapacity];
+		ys = new double[aCapacity];
+	}
+
+	/**
+	 * 座標数を取得する。
+	 *
+	 * @return 座標数
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * 最大座標数に達しているか判断する。
+	 *
+	 * @return 達している場合、<code>true</code>
+	 */
+	boolean isFull() {
+		return indices.length == size;
+	}
+
+	/**
+	 * 座標を追加する。
+	 *
+	 * @param index 入力の座標の位置
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param x X座標[m]
+	 * @param y Y座標[m]
+	 */
+	void add(final long index, final double latitude, final double longitude, final double x, final double y) {
+		indices[size] = index;
+		latitudes[size] = latitude;
+		longitudes[size] = longitude;
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+	}
+
+	/**
+	 * 指定位置より前の座標を削除する。
+	 *
+	 * @param start 残す座標の開始位置
+	 */
+	void retainFrom(final int start) {
+		int length = size - start;
+		System.arraycopy(indices, start, indices, 0, length);
+		System.arraycopy(latitudes, start, latitudes, 0, length);
+		System.arraycopy(longitudes, start, longitudes, 0, length);
+		System.arraycopy(xs, start, xs, 0, length);
+		System.arraycopy(ys, start, ys, 0, length);
+		size = length;
+	}
+
+	/**
+	 * 全ての座標を削除する。
+	 */
+	void clear() {
+		size = 0;
+	}
+}
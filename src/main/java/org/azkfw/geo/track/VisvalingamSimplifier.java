@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+
+/**
+ * このクラスは、軌跡をVisvalingam-Whyatt法で逐次単純化するクラスです。
+ * <p>
+ * 座標を窓サイズまで保持し、窓の先頭と末尾を固定して、有効面積(前後の座標とで作る三角形の面積)が
+ * 最小面積未満の座標を小さい順に削除する。窓の末尾の座標を除いて残った座標を確定して通知し、
+ * 最後に確定した座標と窓の末尾の座標から次の窓を開始する。
+ * </p>
+ * <p>
+ * 窓の末尾付近の座標は後続の座標を考慮せずに確定するため、全体を一括で処理した結果とは一致しない場合がある。
+ * 保持する座標数は窓サイズを超えない。軌跡の最初と最後の座標は必ず残る。
+ * </p>
+ * <p>
+ * 有効面積が最小の座標はインデックス付きの二分ヒープで求めるため、窓あたりの計算量はO(w log w)となる。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class VisvalingamSimplifier extends AbstractTrackProcessor {
+
+	/** デフォルトの窓サイズ */
+	public static final int DEFAULT_WINDOW_SIZE = 256;
+
+	/** 最小面積[m^2] */
+	private final double minArea;
+
+	/** 窓 */
+	private final TrackWindow window;
+	/** 前の座標の位置 */
+	private final int[] prevs;
+	/** 次の座標の位置 */
+	private final int[] nexts;
+	/** 有効面積[m^2] */
+	private final double[] areas;
+	/** 有効面積の二分ヒープ(座標の位置) */
+	private final int[] heap;
+	/** 座標のヒープ内の位置 */
+	private final int[] heapIndices;
+	/** ヒープの要素数 */
+	private int heapSize;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aMinArea 最小面積[m^2]
+	 * @param aListener リスナー
+	 */
+	public VisvalingamSimplifier(final SurveyUtility aSurvey, final Zone aZone, final double aMinArea, final TrackListener aListener) {
+		this(aSurvey, aZone, aMinArea, DEFAULT_WINDOW_SIZE, DEFAULT_BATCH_SIZE, aListener);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSurvey 測量ユーティリティ
+	 * @param aZone 系番号
+	 * @param aMinArea 最小面積[m^2]
+	 * @param aWindowSize 窓サイズ(3以上)
+	 * @param aBatchSize バッチサイズ
+	 * @param aListener リスナー
+	 */
+	public VisvalingamSimplifier(final SurveyUtility aSurvey, final Zone aZone, final double aMinArea, final int aWindowSize, final int aBatchSize,
+			final TrackListener aListener) {
+		super(aSurvey, aZone, aBatchSize, aListener);
+		if (3 > aWindowSize) {
+			throw new IllegalArgumentException("windowSize must be at least 3.");
+		}
+		minArea = aMinArea;
+		window = new TrackWindow(aWindowSize);
+		prevs = new int[aWindowSize];
+		nexts = new int[aWindowSize];
+		areas = new double[aWindowSize];
+		heap = new int[aWindowSize];
+		heapIndices = new int[aWindowSize];
+	}
+
+	@Override
+	protected void process(final long pointIndex, final double latitude, final double longitude, final double x, final double y) {
+		if (0 == window.size()) {
+			// 軌跡の最初の座標
+			emit(pointIndex, latitude, longitude, x, y);
+		}
+		window.add(pointIndex, latitude, longitude, x, y);
+		if (window.isFull()) {
+			simplify(false);
+		}
+	}
+
+	@Override
+	protected void finish() {
+		if (1 < window.size()) {
+			simplify(true);
+		}
+		window.clear();
+	}
+
+	private void simplify(final boolean last) {
+		int n = window.size();
+		eliminate(n);
+
+		// 残った座標を確定する(末尾は軌跡の終了時のみ)
+		int end = last ? n : n - 1;
+		int anchor = 0;
+		for (int i = nexts[0]; i < end; i = nexts[i]) {
+			emit(window.indices[i], window.latitudes[i], window.longitudes[i], window.xs[i], window.ys[i]);
+			anchor = i;
+		}
+		if (last) {
+			return;
+		}
+
+		// 最後に確定した座標と末尾の座標を残す
+		if (anchor < n - 2) {
+			copy(anchor, n - 2);
+		}
+		window.retainFrom(n - 2);
+	}
+
+	private void copy(final int from, final int to) {
+		window.indices[to] = window.indices[from];
+		window.latitudes[to] = window.latitudes[from];
+		window.longitudes[to] = window.longitudes[from];
+		window.xs[to] = window.xs[from];
+		window.ys[to] = window.ys[from];
+	}
+
+	private void eliminate(final int n) {
+		for (int i = 0; i < n; i++) {
+			prevs[i] = i - 1;
+			nexts[i] = i + 1;
+		}
+		heapSize = 0;
+		for (int i = 1; i < n - 1; i++) {
+			areas[i] = area(i - 1, i, i + 1);
+			heap[heapSize] = i;
+			heapIndices[i] = heapSize;
+			heapSize++;
+		}
+		for (int k = heapSize / 2 - 1; k >= 0; k--) {
+			down(k);
+		}
+
+		// 有効面積が最小の座標から削除する
+		while (0 < heapSize && minArea > areas[heap[0]]) {
+			int min = heap[0];
+			double minValue = areas[min];
+			remove(0);
+
+			int prev = prevs[min];
+			int next = nexts[min];
+			nexts[prev] = next;
+			prevs[next] = prev;
+
+			// 前後の座標の有効面積は、削除した座標の有効面積未満にしない
+			if (0 < prev) {
+				areas[prev] = Math.max(area(prevs[prev], prev, next), minValue);
+				update(heapIndices[prev]);
+			}
+			if (n - 1 > next) {
+				areas[next] = Math.max(area(prev, next, nexts[next]), minValue);
+				update(heapIndices[next]);
+			}
+		}
+	}
+
+	private boolean less(final int a, final int b) {
+		// 有効面積が等しい場合は前の座標を優先する
+		return areas[a] < areas[b] || (areas[a] == areas[b] && a < b);
+	}
+
+	private void remove(final int k) {
+		heapSize--;
+		if (k < heapSize) {
+			set(k, heap[heapSize]);
+			update(k);
+		}
+	}
+
+	private void update(final int k) {
+		if (0 < k && less(heap[k], heap[(k - 1) / 2])) {
+			up(k);
+		} else {
+			down(k);
+		}
+	}
+
+	private void up(final int k) {
+		int i = heap[k];
+		int child = k;
+		while (0 < child) {
+			int parent = (child - 1) / 2;
+			if (!less(i, heap[parent])) {
+				break;
+			}
+			set(child, heap[parent]);
+			child = parent;
+		}
+		set(child, i);
+	}
+
+	private void down(final int k) {
+		int i = heap[k];
+		int parent = k;
+		while (true) {
+			int child = parent * 2 + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!less(heap[child], i)) {
+				break;
+			}
+			set(parent, heap[child]);
+			parent = child;
+		}
+		set(parent, i);
+	}
+
+	private void set(final int k, final int i) {
+		heap[k] = i;
+		heapIndices[i] = k;
+	}
+
+	private double area(final int a, final int b, final int c) {
+		double[] xs = window.xs;
+		double[] ys = window.ys;
+		return Math.abs((xs[b] - xs[a]) * (ys[c] - ys[a]) - (xs[c] - xs[a]) * (ys[b] - ys[a])) / 2.0;
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.transform;
+
+import java.util.concurrent.ExecutorService;
+
+import org.azkfw.geo.ParallelUtility;
+import org.azkfw.geo.ParallelUtility.RangeTask;
+import org.azkfw.geo.SokuchiKei;
+
+/**
+ * このクラスは、測地系間で緯度、経度、楕円体高を変換するクラスです。
+ * <p>
+ * 変換元の地心直交座標への変換、Helmert変換、変換先の緯度、経度への変換を1点ずつ連続して行い、
+ * 中間の地心直交座標を格納する配列は確保せず、一括変換は座標ごとのオブジェクトを生成しない。
+ * </p>
+ * <p>
+ * 状態を変更しないため、スレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class DatumTransformer {
+
+	/** 変換元 */
+	private final Geocentric source;
+	/** 変換先 */
+	private final Geocentric target;
+	/** Helmert変換のパラメータ */
+	private final HelmertParameters parameters;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSource 変換元の測地系
+	 * @param aTarget 変換先の測地系
+	 * @param aParameters Helmert変換のパラメータ(変換元から変換先)
+	 */
+	public DatumTransformer(final SokuchiKei aSource, final SokuchiKei aTarget, final HelmertParameters aParameters) {
+		this(new Geocentric(aSource), new Geocentric(aTarget), aParameters);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSource 変換元
+	 * @param aTarget 変換先
+	 * @param aParameters Helmert変換のパラメータ(変換元から変換先)
+	 */
+	public DatumTransformer(final Geocentric aSource, final Geocentric aTarget, final HelmertParameters aParameters) {
+		source = aSource;
+		target = aTarget;
+		parameters = aParameters;
+	}
+
+	/**
+	 * 逆方向の変換を取得する。
+	 *
+	 * @return 逆方向の変換
+	 */
+	public DatumTransformer inverse() {
+		return new DatumTransformer(target, source, parameters.inverse());
+	}
+
+	/**
+	 * 緯度、経度、楕円体高を変換する
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param height 楕円体高[m]
+	 * @param result 結果格納先(緯度[degree], 経度[degree], 楕円体高[m])
+	 */
+	public void transform(final double latitude, final double longitude, final double height, final double[] result) {
+		source.bl2ecef(latitude, longitude, height, result);
+		parameters.transform(result[0], result[1], result[2], result);
+		target.ecef2bl(result[0], result[1], result[2], result);
+	}
+
+	/**
+	 * 緯度、経度、楕円体高の配列を変換する
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param heights 楕円体高[m]、全て0とする場合は<code>null</code>
+	 * @param resultLatitudes 結果格納先(緯度[degree])
+	 * @param resultLongitudes 結果格納先(経度[degree])
+	 * @param resultHeights 結果格納先(楕円体高[m])、不要な場合は<code>null</code>
+	 */
+	public void transform(final double[] latitudes, final double[] longitudes, final double[] heights, final double[] resultLatitudes,
+			final double[] resultLongitudes, final double[] resultHeights) {
+		transform(latitudes, longitudes, heights, 0, latitudes.length, resultLatitudes, resultLongitudes, resultHeights);
+	}
+
+	/**
+	 * 緯度、経度、楕円体高の配列を並列に変換する
+	 * <p>
+	 * 配列を{@link ParallelUtility#MIN_CHUNK_SIZE}以上の範囲に分割し、エグゼキュータで処理する。
+	 * </p>
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param heights 楕円体高[m]、全て0とする場合は<code>null</code>
+	 * @param resultLatitudes 結果格納先(緯度[degree])
+	 * @param resultLongitudes 結果格納先(経度[degree])
+	 * @param resultHeights 結果格納先(楕円体高[m])、不要な場合は<code>null</code>
+	 * @param executor エグゼキュータ、呼び出しスレッドで処理する場合は<code>null</code>
+	 */
+	public void transform(final double[] latitudes, final double[] longitudes, final double[] heights, final double[] resultLatitudes,
+			final double[] resultLongitudes, final double[] resultHeights, final ExecutorService executor) {
+		ParallelUtility.execute(executor, latitudes.length, new RangeTask() {
+			@Override
+			public void execute(final int start, final int end) {
+				transform(latitudes, longitudes, heights, start, end, resultLatitudes, resultLongitudes, resultHeights);
+			}
+		});
+	}
+
+	/**
+	 * 緯度、経度、楕円体高の配列の指定範囲を変換する
+	 * <p>
+	 * 結果格納先には入力と同じ配列を指定できる。
+	 * </p>
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param heights 楕円体高[m]、全て0とする場合は<code>null</code>
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param resultLatitudes 結果格納先(緯度[degree])
+	 * @param resultLongitudes 結果格納先(経度[degree])
+	 * @param resultHeights 結果格納先(楕円体高[m])、不要な場合は<code>null</code>
+	 */
+	public void transform(final double[] latitudes, final double[] longitudes, final double[] heights, final int start, final int end,
+			final double[] resultLatitudes, final double[] resultLongitudes, final double[] resultHeights) {
+		// 変換元
+		final double sa = source.a;
+		final double se2 = source.e2;
+		// Helmert変換
+		final HelmertParameters h = parameters;
+		// 変換先
+		final double ta = target.a;
+		final double tb = target.b;
+		final double te2 = target.e2;
+		final double ted2 = target.ed2;
+
+		boolean height = (null != resultHeights);
+		double[] buffer = new double[3];
+		for (int i = start; i < end; i++) {
+			// 緯度、経度から地心直交座標
+			Geocentric.bl2ecef(sa, se2, latitudes[i], longitudes[i], (null == heights) ? 0.0 : heights[i], buffer);
+			double x1 = buffer[0];
+			double y1 = buffer[1];
+			double z1 = buffer[2];
+
+			// Helmert変換
+			double x = h.tx + h.m00 * x1 + h.m01 * y1 + h.m02 * z1;
+			double y = h.ty + h.m10 * x1 + h.m11 * y1 + h.m12 * z1;
+			double z = h.tz + h.m20 * x1 + h.m21 * y1 + h.m22 * z1;
+
+			// 地心直交座標から緯度、経度
+			Geocentric.ecef2bl(ta, tb, te2, ted2, x, y, z, height, buffer);
+			resultLatitudes[i] = buffer[0];
+			resultLongitudes[i] = buffer[1];
+			if (height) {
+				resultHeights[i] = buffer[2];
+			}
+		}
+	}
+}
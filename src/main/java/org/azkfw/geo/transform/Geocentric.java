@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.transform;
+
+import org.azkfw.geo.SokuchiKei;
+
+/**
+ * このクラスは、緯度、経度、楕円体高と地心直交座標(ECEF)を相互に変換するクラスです。
+ * <p>
+ * 地心直交座標から緯度への変換はBowringの式による非反復計算とし、楕円体高±10kmでの往復誤差は緯度で約8×10<sup>-12</sup>度(約0.9µm)となる。
+ * 三角関数は緯度、経度の算出に<code>atan2</code>を各1回のみ使用する。
+ * </p>
+ * <p>
+ * 楕円体の定数は生成時に求めて保持し、以降は変更しないため、スレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class Geocentric {
+
+	/** 測地系 */
+	private final SokuchiKei kei;
+
+	/** 長半径[m] */
+	final double a;
+	/** 短半径[m] */
+	final double b;
+	/** 第一離心率の2乗 */
+	final double e2;
+	/** 第二離心率の2乗 */
+	final double ed2;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aKei 測地系
+	 */
+	public Geocentric(final SokuchiKei aKei) {
+		kei = aKei;
+		double f = 1.0 / aKei.F;
+		a = aKei.a;
+		b = aKei.a * (1.0 - f);
+		e2 = f * (2.0 - f);
+		ed2 = e2 / (1.0 - e2);
+	}
+
+	/**
+	 * 測地系を取得する。
+	 *
+	 * @return 測地系
+	 */
+	public SokuchiKei getSokuchiKei() {
+		return kei;
+	}
+
+	/**
+	 * 緯度、経度、楕円体高から地心直交座標を求める
+	 *
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param height 楕円体高[m]
+	 * @param result 結果格納先(X[m], Y[m], Z[m])
+	 */
+	public void bl2ecef(final double latitude, final double longitude, final double height, final double[] result) {
+		bl2ecef(a, e2, latitude, longitude, height, result);
+	}
+
+	/**
+	 * 緯度、経度、楕円体高の配列の指定範囲から地心直交座標を求める
+	 *
+	 * @param latitudes 緯度[degree]
+	 * @param longitudes 経度[degree]
+	 * @param heights 楕円体高[m]、全て0とする場合は<code>null</code>
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param xs 結果格納先(X[m])
+	 * @param ys 結果格納先(Y[m])
+	 * @param zs 結果格納先(Z[m])
+	 */
+	public void bl2ecef(final double[] latitudes, final double[] longitudes, final double[] heights, final int start, final int end,
+			final double[] xs, final double[] ys, final double[] zs) {
+		double[] xyz = new double[3];
+		for (int i = start; i < end; i++) {
+			bl2ecef(a, e2, latitudes[i], longitudes[i], (null == heights) ? 0.0 : heights[i], xyz);
+			xs[i] = xyz[0];
+			ys[i] = xyz[1];
+			zs[i] = xyz[2];
+		}
+	}
+
+	/**
+	 * 地心直交座標から緯度、経度、楕円体高を求める
+	 * <p>
+	 * 地心(0, 0, 0)は緯度が定まらないため、結果はNaNとなる。
+	 * </p>
+	 *
+	 * @param x X[m]
+	 * @param y Y[m]
+	 * @param z Z[m]
+	 * @param result 結果格納先(緯度[degree], 経度[degree], 楕円体高[m])
+	 */
+	public void ecef2bl(final double x, final double y, final double z, final double[] result) {
+		ecef2bl(a, b, e2, ed2, x, y, z, true, result);
+	}
+
+	/**
+	 * 地心直交座標の配列の指定範囲から緯度、経度、楕円体高を求める
+	 * <p>
+	 * 結果格納先には入力と同じ配列を指定できる。
+	 * </p>
+	 *
+	 * @param xs X[m]
+	 * @param ys Y[m]
+	 * @param zs Z[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param latitudes 結果格納先(緯度[degree])
+	 * @param longitudes 結果格納先(経度[degree])
+	 * @param heights 結果格納先(楕円体高[m])、不要な場合は<code>null</code>
+	 */
+	public void ecef2bl(final double[] xs, final double[] ys, final double[] zs, final int start, final int end, final double[] latitudes,
+			final double[] longitudes, final double[] heights) {
+		boolean height = (null != heights);
+		double[] blh = new double[3];
+		for (int i = start; i < end; i++) {
+			ecef2bl(a, b, e2, ed2, xs[i], ys[i], zs[i], height, blh);
+			latitudes[i] = blh[0];
+			longitudes[i] = blh[1];
+			if (height) {
+				heights[i] = blh[2];
+			}
+		}
+	}
+
+	/**
+	 * 緯度、経度、楕円体高から地心直交座標を求める
+	 * <p>
+	 * 1点変換、一括変換、{@link DatumTransformer}で共有する。
+	 * </p>
+	 *
+	 * @param a 長半径[m]
+	 * @param e2 第一離心率の2乗
+	 * @param latitude 緯度[degree]
+	 * @param longitude 経度[degree]
+	 * @param height 楕円体高[m]
+	 * @param result 結果格納先(X[m], Y[m], Z[m])
+	 */
+	static void bl2ecef(final double a, final double e2, final double latitude, final double longitude, final double height,
+			final double[] result) {
+		double phi = Math.toRadians(latitude);
+		double lamda = Math.toRadians(longitude);
+		double sinPhi = Math.sin(phi);
+		double cosPhi = Math.cos(phi);
+		double n = a / Math.sqrt(1.0 - e2 * sinPhi * sinPhi);
+		double r = (n + height) * cosPhi;
+		result[0] = r * Math.cos(lamda);
+		result[1] = r * Math.sin(lamda);
+		result[2] = (n * (1.0 - e2) + height) * sinPhi;
+	}
+
+	/**
+	 * 地心直交座標からBowringの式で緯度、経度、楕円体高を求める
+	 * <p>
+	 * 1点変換、一括変換、{@link DatumTransformer}で共有する。
+	 * </p>
+	 *
+	 * @param a 長半径[m]
+	 * @param b 短半径[m]
+	 * @param e2 第一離心率の2乗
+	 * @param ed2 第二離心率の2乗
+	 * @param x X[m]
+	 * @param y Y[m]
+	 * @param z Z[m]
+	 * @param height 楕円体高を求める場合、<code>true</code>
+	 * @param result 結果格納先(緯度[degree], 経度[degree], 楕円体高[m])
+	 */
+	static void ecef2bl(final double a, final double b, final double e2, final double ed2, final double x, final double y, final double z,
+			final boolean height, final double[] result) {
+		double p = Math.sqrt(x * x + y * y);
+		// 更成緯度
+		double u = p * b;
+		double v = z * a;
+		double w = Math.sqrt(u * u + v * v);
+		double cosBeta = u / w;
+		double sinBeta = v / w;
+		// 緯度
+		double num = z + ed2 * b * sinBeta * sinBeta * sinBeta;
+		double den = p - e2 * a * cosBeta * cosBeta * cosBeta;
+
+		result[0] = Math.toDegrees(Math.atan2(num, den));
+		result[1] = Math.toDegrees(Math.atan2(y, x));
+		if (height) {
+			double q = Math.sqrt(num * num + den * den);
+			double sinPhi = num / q;
+			double cosPhi = den / q;
+			result[2] = p * cosPhi + z * sinPhi - a * Math.sqrt(1.0 - e2 * sinPhi * sinPhi);
+		}
+	}
+}
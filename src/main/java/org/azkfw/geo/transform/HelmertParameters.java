@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.transform;
+
+/**
+ * このクラスは、地心直交座標のHelmert変換(7パラメータ)を定義するクラスです。
+ * <p>
+ * 変換は<code>X' = T + (1 + s)R X</code>とし、回転は微小角として線形化する。
+ * 回転・縮尺の行列は生成時に求めて保持し、以降は変更しないため、スレッドセーフです。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class HelmertParameters {
+
+	/**
+	 * この列挙型は、回転パラメータの符号の定義を定義した列挙型です。
+	 *
+	 * @author kawakicchi
+	 */
+	public static enum Convention {
+		/** 位置ベクトルの回転(IERS、ISO 19111) */
+		POSITION_VECTOR,
+		/** 座標軸の回転 */
+		COORDINATE_FRAME;
+	}
+
+	/**
+	 * 日本測地系(Tokyo)から世界測地系(JGD2000)への3パラメータ変換
+	 * <p>
+	 * 全国一律の平行移動のため、地域により数mの誤差を含む。
+	 * </p>
+	 */
+	public static final HelmertParameters TOKYO_TO_JGD2000 = new HelmertParameters(-146.414, 507.337, 680.507, 0.0, 0.0, 0.0, 0.0,
+			Convention.POSITION_VECTOR);
+
+	/** 秒をラジアンへ変換する係数 */
+	private static final double ARCSEC = Math.PI / (180.0 * 3600.0);
+
+	/** 平行移動量(X)[m] */
+	final double tx;
+	/** 平行移動量(Y)[m] */
+	final double ty;
+	/** 平行移動量(Z)[m] */
+	final double tz;
+
+	/** 回転・縮尺の行列(1行目) */
+	final double m00, m01, m02;
+	/** 回転・縮尺の行列(2行目) */
+	final double m10, m11, m12;
+	/** 回転・縮尺の行列(3行目) */
+	final double m20, m21, m22;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aTx 平行移動量(X)[m]
+	 * @param aTy 平行移動量(Y)[m]
+	 * @param aTz 平行移動量(Z)[m]
+	 * @param aRx 回転量(X軸)[秒]
+	 * @param aRy 回転量(Y軸)[秒]
+	 * @param aRz 回転量(Z軸)[秒]
+	 * @param aScale 縮尺の補正量[ppm]
+	 * @param aConvention 回転パラメータの符号の定義
+	 */
+	public HelmertParameters(final double aTx, final double aTy, final double aTz, final double aRx, final double aRy, final double aRz,
+			final double aScale, final Convention aConvention) {
+		double sign = (Convention.POSITION_VECTOR == aConvention) ? 1.0 : -1.0;
+		double rx = sign * aRx * ARCSEC;
+		double ry = sign * aRy * ARCSEC;
+		double rz = sign * aRz * ARCSEC;
+		double s = 1.0 + aScale * 1e-6;
+		tx = aTx;
+		ty = aTy;
+		tz = aTz;
+		m00 = s;
+		m01 = -s * rz;
+		m02 = s * ry;
+		m10 = s * rz;
+		m11 = s;
+		m12 = -s * rx;
+		m20 = -s * ry;
+		m21 = s * rx;
+		m22 = s;
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aTranslation 平行移動量[m]
+	 * @param aMatrix 回転・縮尺の行列(行優先)
+	 */
+	private HelmertParameters(final double[] aTranslation, final double[] aMatrix) {
+		tx = aTranslation[0];
+		ty = aTranslation[1];
+		tz = aTranslation[2];
+		m00 = aMatrix[0];
+		m01 = aMatrix[1];
+		m02 = aMatrix[2];
+		m10 = aMatrix[3];
+		m11 = aMatrix[4];
+		m12 = aMatrix[5];
+		m20 = aMatrix[6];
+		m21 = aMatrix[7];
+		m22 = aMatrix[8];
+	}
+
+	/**
+	 * 逆変換を取得する。
+	 * <p>
+	 * パラメータの符号を反転した近似ではなく、行列の逆行列から求めるため、往復変換で元の座標に戻る。
+	 * </p>
+	 *
+	 * @return 逆変換
+	 */
+	public HelmertParameters inverse() {
+		double c00 = m11 * m22 - m12 * m21;
+		double c01 = m02 * m21 - m01 * m22;
+		double c02 = m01 * m12 - m02 * m11;
+		double c10 = m12 * m20 - m10 * m22;
+		double c11 = m00 * m22 - m02 * m20;
+		double c12 = m02 * m10 - m00 * m12;
+		double c20 = m10 * m21 - m11 * m20;
+		double c21 = m01 * m20 - m00 * m21;
+		double c22 = m00 * m11 - m01 * m10;
+		double det = m00 * c00 + m01 * c10 + m02 * c20;
+
+		double[] matrix = new double[] { c00 / det, c01 / det, c02 / det, c10 / det, c11 / det, c12 / det, c20 / det, c21 / det, c22 / det };
+		double[] translation = new double[] { -(matrix[0] * tx + matrix[1] * ty + matrix[2] * tz),
+				-(matrix[3] * tx + matrix[4] * ty + matrix[5] * tz), -(matrix[6] * tx + matrix[7] * ty + matrix[8] * tz) };
+		return new HelmertParameters(translation, matrix);
+	}
+
+	/**
+	 * 地心直交座標を変換する
+	 *
+	 * @param x X[m]
+	 * @param y Y[m]
+	 * @param z Z[m]
+	 * @param result 結果格納先(X[m], Y[m], Z[m])
+	 */
+	public void transform(final double x, final double y, final double z, final double[] result) {
+		result[0] = tx + m00 * x + m01 * y + m02 * z;
+		result[1] = ty + m10 * x + m11 * y + m12 * z;
+		result[2] = tz + m20 * x + m21 * y + m22 * z;
+	}
+
+	/**
+	 * 地心直交座標の配列の指定範囲を変換する
+	 * <p>
+	 * 結果格納先には入力と同じ配列を指定できる。
+	 * </p>
+	 *
+	 * @param xs X[m]
+	 * @param ys Y[m]
+	 * @param zs Z[m]
+	 * @param start 開始位置
+	 * @param end 終了位置(この位置は含まない)
+	 * @param resultXs 結果格納先(X[m])
+	 * @param resultYs 結果格納先(Y[m])
+	 * @param resultZs 結果格納先(Z[m])
+	 */
+	public void transform(final double[] xs, final double[] ys, final double[] zs, final int start, final int end, final double[] resultXs,
+			final double[] resultYs, final double[] resultZs) {
+		for (int i = start; i < end; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			double z = zs[i];
+			resultXs[i] = tx + m00 * x + m01 * y + m02 * z;
+			resultYs[i] = ty + m10 * x + m11 * y + m12 * z;
+			resultZs[i] = tz + m20 * x + m21 * y + m22 * z;
+		}
+	}
+}
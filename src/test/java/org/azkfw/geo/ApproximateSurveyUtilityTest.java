@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class ApproximateSurveyUtilityTest extends TestCase {
+
+	@Test
+	public void testMaxError() {
+		ApproximateSurveyUtility approximate = new ApproximateSurveyUtility();
+		SurveyUtility survey = new SurveyUtility();
+		Random random = new Random(1);
+		double[] exact = new double[2];
+		double[] result = new double[2];
+
+		for (Zone zone : new Zone[] { Zone.System09, Zone.System18 }) {
+			double maxError = approximate.getMaxError(zone);
+			double inverseMaxError = approximate.getInverseMaxError(zone);
+			assertTrue(0.0 < maxError && maxError < 0.05);
+
+			double lat0 = zone.getLatitude().toDegree();
+			double lon0 = zone.getLongitude().toDegree();
+			double measured = 0.0;
+			double inverseMeasured = 0.0;
+			for (int i = 0; i < 50000; i++) {
+				double lat = lat0 - 5.0 + random.nextDouble() * 10.0;
+				double lon = lon0 - 2.0 + random.nextDouble() * 4.0;
+				survey.bl2xy(lat, lon, zone, exact);
+				approximate.bl2xy(lat, lon, zone, result);
+				measured = Math.max(measured, Math.hypot(exact[0] - result[0], exact[1] - result[1]));
+
+				double x = -560000.0 + random.nextDouble() * 1120000.0;
+				double y = -220000.0 + random.nextDouble() * 440000.0;
+				survey.xy2bl(x, y, zone, exact);
+				approximate.xy2bl(x, y, zone, result);
+				inverseMeasured = Math.max(inverseMeasured, Math.hypot(exact[0] - result[0], exact[1] - result[1]));
+			}
+			assertTrue(measured <= maxError);
+			assertTrue(inverseMeasured <= inverseMaxError);
+		}
+	}
+
+	@Test
+	public void testOutsideGrid() {
+		ApproximateSurveyUtility approximate = new ApproximateSurveyUtility();
+		SurveyUtility survey = new SurveyUtility();
+		Zone zone = Zone.System09;
+		double lat0 = zone.getLatitude().toDegree();
+		double lon0 = zone.getLongitude().toDegree();
+
+		// 格子の範囲外は厳密計算と一致
+		double[] latitudes = { lat0 + 6.0, lat0 - 5.5, lat0 };
+		double[] longitudes = { lon0, lon0 + 1.0, lon0 - 2.5 };
+		double[] xs = new double[3];
+		double[] ys = new double[3];
+		double[] exactXs = new double[3];
+		double[] exactYs = new double[3];
+		approximate.bl2xy(latitudes, longitudes, zone, xs, ys);
+		survey.bl2xy(latitudes, longitudes, zone, exactXs, exactYs);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(exactXs[i], xs[i], 0.0);
+			assertEquals(exactYs[i], ys[i], 0.0);
+		}
+
+		double[] lats = new double[3];
+		double[] lons = new double[3];
+		double[] exactLats = new double[3];
+		double[] exactLons = new double[3];
+		double[] outsideXs = { 600000.0, -570000.0, 0.0 };
+		double[] outsideYs = { 0.0, 10000.0, 230000.0 };
+		approximate.xy2bl(outsideXs, outsideYs, zone, lats, lons);
+		survey.xy2bl(outsideXs, outsideYs, zone, exactLats, exactLons);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(exactLats[i], lats[i], 0.0);
+			assertEquals(exactLons[i], lons[i], 0.0);
+		}
+
+		double[] xy = new double[2];
+		double[] exact = new double[2];
+		approximate.bl2xy(lat0 + 6.0, lon0, zone, xy);
+		survey.bl2xy(lat0 + 6.0, lon0, zone, exact);
+		assertEquals(exact[0], xy[0], 0.0);
+		assertEquals(exact[1], xy[1], 0.0);
+	}
+}
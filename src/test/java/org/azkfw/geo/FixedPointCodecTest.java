@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class FixedPointCodecTest extends TestCase {
+
+	@Test
+	public void test() {
+		assertEquals(361037748, FixedPointCodec.encodeDegree(36.103774792));
+		assertEquals(-1400878550, FixedPointCodec.encodeDegree(-140.087855042));
+		assertEquals(36.1037748, FixedPointCodec.decodeDegree(361037748), 1e-12);
+
+		assertEquals(11543688, FixedPointCodec.encodeMeter(11543.6883));
+		assertEquals(-22916244, FixedPointCodec.encodeMeter(-22916.2436));
+		assertEquals(11543.688, FixedPointCodec.decodeMeter(11543688), 1e-12);
+
+		assertEquals(Integer.MAX_VALUE, FixedPointCodec.encodeMeter(1e10));
+		assertEquals(0, FixedPointCodec.encodeDegree(Double.NaN));
+	}
+
+	@Test
+	public void testConvert() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 3000;
+		int[] latitudes = new int[size];
+		int[] longitudes = new int[size];
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = FixedPointCodec.encodeDegree(35.5 + i * 0.0003);
+			longitudes[i] = FixedPointCodec.encodeDegree(139.5 + i * 0.0002);
+		}
+
+		int[] xs = new int[size];
+		int[] ys = new int[size];
+		FixedPointCodec.bl2xy(survey, latitudes, longitudes, Zone.System09, xs, ys);
+
+		double[] xy = new double[2];
+		for (int i = 0; i < size; i++) {
+			survey.bl2xy(FixedPointCodec.decodeDegree(latitudes[i]), FixedPointCodec.decodeDegree(longitudes[i]), Zone.System09, xy);
+			assertEquals(FixedPointCodec.encodeMeter(xy[0]), xs[i]);
+			assertEquals(FixedPointCodec.encodeMeter(xy[1]), ys[i]);
+		}
+
+		int[] latitudes2 = new int[size];
+		int[] longitudes2 = new int[size];
+		FixedPointCodec.xy2bl(survey, xs, ys, Zone.System09, latitudes2, longitudes2);
+		for (int i = 0; i < size; i++) {
+			// 1mm は 1e-7 度(約1cm)未満のため、丸め誤差は1単位以内
+			assertTrue(1 >= Math.abs(latitudes[i] - latitudes2[i]));
+			assertTrue(1 >= Math.abs(longitudes[i] - longitudes2[i]));
+		}
+
+		// 近似計算は誤差の推定値(約1.2cm)以内
+		ApproximateSurveyUtility approximate = new ApproximateSurveyUtility();
+		int[] xs2 = new int[size];
+		int[] ys2 = new int[size];
+		FixedPointCodec.bl2xy(approximate, latitudes, longitudes, Zone.System09, xs2, ys2);
+		for (int i = 0; i < size; i++) {
+			assertTrue(20 >= Math.abs(xs[i] - xs2[i]));
+			assertTrue(20 >= Math.abs(ys[i] - ys2[i]));
+		}
+	}
+}
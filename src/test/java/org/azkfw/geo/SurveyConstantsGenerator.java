@@ -0,0 +1,306 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * このクラスは、{@link SurveyConstants}のソースを生成するクラスです。
+ * <p>
+ * 測地系、系の定義から定数を計算し、Javaのソースとして出力する。
+ * <code>mvn -Pgenerate-constants process-test-classes</code>で実行し、生成したソースはリポジトリに登録する。
+ * 登録済みのソースが生成結果と一致することは{@link SurveyConstantsTest}で確認する。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public final class SurveyConstantsGenerator {
+
+	/** 改行 */
+	private static final String NEW_LINE = "\r\n";
+
+	/** 数値の有効桁数(倍精度浮動小数点数を一意に表す桁数) */
+	private static final MathContext DIGITS = new MathContext(17);
+
+	/**
+	 * コンストラクタ
+	 */
+	private SurveyConstantsGenerator() {
+
+	}
+
+	/**
+	 * ソースを生成する。
+	 *
+	 * @param args 出力先のファイル
+	 * @throws IOException 出力に失敗した場合
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (1 != args.length) {
+			throw new IllegalArgumentException("Usage: SurveyConstantsGenerator <output file>");
+		}
+		Writer writer = new OutputStreamWriter(new FileOutputStream(new File(args[0])), "UTF-8");
+		try {
+			writer.write(generate());
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * ソースを生成する。
+	 *
+	 * @return ソース
+	 */
+	public static String generate() {
+		SokuchiKei[] keis = SokuchiKei.values();
+		Zone[] zones = Zone.values();
+
+		double[] es = new double[keis.length];
+		double[] e2s = new double[keis.length];
+		double[] ed2s = new double[keis.length];
+		double[] ae2s = new double[keis.length];
+		double[][] meridians = new double[keis.length][];
+		for (SokuchiKei kei : keis) {
+			int k = kei.ordinal();
+			double e = Math.sqrt(2.0 * kei.F - 1.0) / kei.F;
+			es[k] = e;
+			e2s[k] = Math.pow(e, 2.0);
+			ed2s[k] = Math.pow(e, 2.0) / (1.0 - Math.pow(e, 2.0));
+			ae2s[k] = kei.a * (1.0 - Math.pow(e, 2.0));
+			meridians[k] = meridian(e);
+		}
+
+		double[] phi0s = new double[zones.length];
+		double[] lamda0s = new double[zones.length];
+		for (Zone zone : zones) {
+			phi0s[zone.ordinal()] = zone.getLatitude().toRadian();
+			lamda0s[zone.ordinal()] = zone.getLongitude().toRadian();
+		}
+
+		double[][] s0s = new double[keis.length][zones.length];
+		for (SokuchiKei kei : keis) {
+			int k = kei.ordinal();
+			for (Zone zone : zones) {
+				s0s[k][zone.ordinal()] = kocyou(phi0s[zone.ordinal()], ae2s[k], meridians[k]);
+			}
+		}
+
+		StringBuilder s = new StringBuilder();
+		line(s, "/**");
+		line(s, " * Licensed to the Apache Software Foundation (ASF) under one");
+		line(s, " * or more contributor license agreements.  See the NOTICE file");
+		line(s, " * distributed with this work for additional information");
+		line(s, " * regarding copyright ownership.  The ASF licenses this file");
+		line(s, " * to you under the Apache License, Version 2.0 (the");
+		line(s, " * \"License\"); you may not use this file except in compliance");
+		line(s, " * with the License.  You may obtain a copy of the License at");
+		line(s, " *");
+		line(s, " *     http://www.apache.org/licenses/LICENSE-2.0");
+		line(s, " *");
+		line(s, " * Unless required by applicable law or agreed to in writing, software");
+		line(s, " * distributed under the License is distributed on an \"AS IS\" BASIS,");
+		line(s, " * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.");
+		line(s, " * See the License for the specific language governing permissions and");
+		line(s, " * limitations under the License.");
+		line(s, " */");
+		line(s, "package org.azkfw.geo;");
+		line(s, "");
+		line(s, "/**");
+		line(s, " * このクラスは、測地系、系ごとの定数を定義したクラスです。");
+		line(s, " * <p>");
+		line(s, " * 測地系の定数は{@link SokuchiKei#ordinal()}、系の定数は{@link Zone#ordinal()}を添字とする。");
+		line(s, " * </p>");
+		line(s, " * <p>");
+		line(s, " * このファイルはSurveyConstantsGeneratorで生成している。直接編集しないこと。");
+		line(s, " * </p>");
+		line(s, " *");
+		line(s, " * @since 1.0.0");
+		line(s, " * @version 1.0.0 2014/12/09");
+		line(s, " * @author kawakicchi");
+		line(s, " */");
+		line(s, "final class SurveyConstants {");
+		line(s, "");
+		array(s, "離心率", "E", es, keis);
+		array(s, "離心率の2乗", "E2", e2s, keis);
+		array(s, "第二離心率の2乗", "ED2", ed2s, keis);
+		array(s, "子午線弧長の係数(a(1-e^2))", "AE2", ae2s, keis);
+		array(s, "子午線弧長の級数の係数(A～I)", "MERIDIAN", meridians, keis, 3);
+		array(s, "原点の緯度[radian]", "PHI0", phi0s, zones);
+		array(s, "原点の経度[radian]", "LAMDA0", lamda0s, zones);
+		array(s, "原点の子午線弧長[m]", "S0", s0s, keis, 4);
+		line(s, "\t/**");
+		line(s, "\t * コンストラクタ");
+		line(s, "\t */");
+		line(s, "\tprivate SurveyConstants() {");
+		line(s, "");
+		line(s, "\t}");
+		line(s, "}");
+		return s.toString();
+	}
+
+	/**
+	 * 子午線弧長の級数の係数を求める。
+	 *
+	 * @param aE 離心率
+	 * @return 係数(A～I)
+	 */
+	private static double[] meridian(final double aE) {
+		double e2j = Math.pow(aE, 2.0);
+		double e4j = Math.pow(aE, 4.0);
+		double e6j = Math.pow(aE, 6.0);
+		double e8j = Math.pow(aE, 8.0);
+		double e10j = Math.pow(aE, 10.0);
+		double e12j = Math.pow(aE, 12.0);
+		double e14j = Math.pow(aE, 14.0);
+		double e16j = Math.pow(aE, 16.0);
+
+		double a1 = 1.0;
+		double a2 = 3.0 / 4.0 * e2j;
+		double a3 = 45.0 / 64.0 * e4j;
+		double a4 = 175.0 / 256.0 * e6j;
+		double a5 = 11025.0 / 16384.0 * e8j;
+		double a6 = 43659.0 / 65536.0 * e10j;
+		double a7 = 693693.0 / 1048576.0 * e12j;
+		double a8 = 19324305.0 / 29360128.0 * e14j;
+		double a9 = 4927697775.0 / 7516192768.0 * e16j;
+		double a = a1 + a2 + a3 + a4 + a5 + a6 + a7 + a8 + a9;
+
+		double b1 = 3.0 / 4.0 * e2j;
+		double b2 = 15.0 / 16.0 * e4j;
+		double b3 = 525.0 / 512.0 * e6j;
+		double b4 = 2205.0 / 2048.0 * e8j;
+		double b5 = 72765.0 / 65536.0 * e10j;
+		double b6 = 297297.0 / 262144.0 * e12j;
+		double b7 = 135270135.0 / 117440512.0 * e14j;
+		double b8 = 547521975.0 / 469762048.0 * e16j;
+		double b = b1 + b2 + b3 + b4 + b5 + b6 + b7 + b8;
+
+		double c1 = 15.0 / 64.0 * e4j;
+		double c2 = 105.0 / 256.0 * e6j;
+		double c3 = 2205.0 / 4096.0 * e8j;
+		double c4 = 10395.0 / 16384.0 * e10j;
+		double c5 = 1486485.0 / 2097152.0 * e12j;
+		double c6 = 45090045.0 / 58720256.0 * e14j;
+		double c7 = 766530765.0 / 939524096.0 * e16j;
+		double c = c1 + c2 + c3 + c4 + c5 + c6 + c7;
+
+		double d1 = 35.0 / 512.0 * e6j;
+		double d2 = 315.0 / 2048.0 * e8j;
+		double d3 = 31185.0 / 131072.0 * e10j;
+		double d4 = 165165.0 / 524288.0 * e12j;
+		double d5 = 45090045.0 / 117440512.0 * e14j;
+		double d6 = 209053845.0 / 469762048.0 * e16j;
+		double d = d1 + d2 + d3 + d4 + d5 + d6;
+
+		double e1 = 315.0 / 16384.0 * e8j;
+		double e2 = 3465.0 / 65536.0 * e10j;
+		double e3 = 99099.0 / 1048576.0 * e12j;
+		double e4 = 4099095.0 / 29360128.0 * e14j;
+		double e5 = 348423075.0 / 1879048192.0 * e16j;
+		double e = e1 + e2 + e3 + e4 + e5;
+
+		double f1 = 693.0 / 131072 * e10j;
+		double f2 = 9009.0 / 524288.0 * e12j;
+		double f3 = 4099095.0 / 117440512.0 * e14j;
+		double f4 = 26801775.0 / 469762048.0 * e16j;
+		double f = f1 + f2 + f3 + f4;
+
+		double g1 = 3003 / 2097152.0 * e12j;
+		double g2 = 315315.0 / 58720256.0 * e14j;
+		double g3 = 11486475.0 / 939524096.0 * e16j;
+		double g = g1 + g2 + g3;
+
+		double h1 = 45045.0 / 117440512.0 * e14j;
+		double h2 = 765765.0 / 469762048.0 * e16j;
+		double h = h1 + h2;
+
+		double i1 = 765765.0 / 7516192768.0 * e16j;
+		double i = i1;
+
+		return new double[] { a, b, c, d, e, f, g, h, i };
+	}
+
+	/**
+	 * 子午線弧長を求める。
+	 * <p>
+	 * {@link SurveyUtility}の子午線弧長の計算と同じ式とすること。
+	 * </p>
+	 *
+	 * @param ido 緯度[radian]
+	 * @param ae2 a(1-e^2)
+	 * @param m 子午線弧長の級数の係数
+	 * @return 子午線弧長[m]
+	 */
+	private static double kocyou(final double ido, final double ae2, final double[] m) {
+		return ae2
+				* (m[0] * ido - m[1] * Math.sin(ido * 2.0) / 2.0 + m[2] * Math.sin(ido * 4.0) / 4.0 - m[3] * Math.sin(ido * 6.0) / 6.0 + m[4]
+						* Math.sin(ido * 8.0) / 8.0 - m[5] * Math.sin(ido * 10.0) / 10.0 + m[6] * Math.sin(ido * 12.0) / 12.0 - m[7]
+						* Math.sin(ido * 14.0) / 14.0 + m[8] * Math.sin(ido * 16.0) / 16.0);
+	}
+
+	private static void array(final StringBuilder s, final String comment, final String name, final double[] values, final Enum<?>[] labels) {
+		line(s, "\t/** " + comment + " */");
+		line(s, "\tstatic final double[] " + name + " = {");
+		for (int i = 0; i < values.length; i++) {
+			line(s, "\t\t\t" + value(values[i]) + ((i + 1 < values.length) ? ", " : " ") + "// " + labels[i].name());
+		}
+		line(s, "\t};");
+		line(s, "");
+	}
+
+	private static void array(final StringBuilder s, final String comment, final String name, final double[][] values, final Enum<?>[] labels,
+			final int columns) {
+		line(s, "\t/** " + comment + " */");
+		line(s, "\tstatic final double[][] " + name + " = {");
+		for (int i = 0; i < values.length; i++) {
+			line(s, "\t\t\t// " + labels[i].name());
+			s.append("\t\t\t{ ");
+			for (int j = 0; j < values[i].length; j++) {
+				if (0 < j) {
+					if (0 == j % columns) {
+						line(s, ",");
+						s.append("\t\t\t\t\t");
+					} else {
+						s.append(", ");
+					}
+				}
+				s.append(value(values[i][j]));
+			}
+			line(s, (i + 1 < values.length) ? " }," : " }");
+		}
+		line(s, "\t};");
+		line(s, "");
+	}
+
+	private static String value(final double value) {
+		return new BigDecimal(value).round(DIGITS).toString();
+	}
+
+	private static void line(final StringBuilder s, final String line) {
+		s.append(line).append(NEW_LINE);
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SurveyConstantsTest extends TestCase {
+
+	@Test
+	public void test() throws IOException {
+		// 登録済みのソースが生成結果と一致すること(不一致の場合は mvn -Pgenerate-constants process-test-classes で再生成する)
+		String expected = SurveyConstantsGenerator.generate();
+		String actual = read("src/main/java/org/azkfw/geo/SurveyConstants.java");
+		assertEquals(expected.replace("\r\n", "\n"), actual.replace("\r\n", "\n"));
+	}
+
+	@Test
+	public void testValues() {
+		for (Zone zone : Zone.values()) {
+			assertEquals(zone.getLatitude().toRadian(), SurveyConstants.PHI0[zone.ordinal()], 0.0);
+			assertEquals(zone.getLongitude().toRadian(), SurveyConstants.LAMDA0[zone.ordinal()], 0.0);
+		}
+		for (SokuchiKei kei : SokuchiKei.values()) {
+			assertEquals(Math.sqrt(2.0 * kei.F - 1.0) / kei.F, SurveyConstants.E[kei.ordinal()], 0.0);
+		}
+	}
+
+	private static String read(final String aPath) throws IOException {
+		InputStream in = new FileInputStream(aPath);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int size;
+			while (-1 != (size = in.read(buffer))) {
+				out.write(buffer, 0, size);
+			}
+			return out.toString("UTF-8");
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SurveyUtilityTest extends TestCase {
+
+	@Test
+	public void testXy2xy() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 100;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = -20000.0 + i * 500.0;
+			ys[i] = 60000.0 + i * 300.0;
+		}
+
+		double[] toXs = new double[size];
+		double[] toYs = new double[size];
+		survey.xy2xy(xs, ys, Zone.System09, Zone.System10, toXs, toYs);
+
+		double[] bl = new double[2];
+		double[] xy = new double[2];
+		for (int i = 0; i < size; i++) {
+			survey.xy2bl(xs[i], ys[i], Zone.System09, bl);
+			survey.bl2xy(bl[0], bl[1], Zone.System10, xy);
+			assertEquals(xy[0], toXs[i], 1e-6);
+			assertEquals(xy[1], toYs[i], 1e-6);
+
+			survey.xy2xy(xs[i], ys[i], Zone.System09, Zone.System10, xy);
+			assertEquals(toXs[i], xy[0], 1e-9);
+			assertEquals(toYs[i], xy[1], 1e-9);
+		}
+
+		// 同じ配列を指定した変換(往復)
+		survey.xy2xy(toXs, toYs, Zone.System10, Zone.System09, toXs, toYs);
+		for (int i = 0; i < size; i++) {
+			assertEquals(xs[i], toXs[i], 1e-6);
+			assertEquals(ys[i], toYs[i], 1e-6);
+		}
+	}
+
+	@Test
+	public void testGridConvAndScaleFactor() {
+		SurveyUtility survey = new SurveyUtility();
+		SokuchiKei kei = survey.getSokuchiKei();
+
+		int size = 100;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = 35.0 + (i % 10) * 0.2;
+			longitudes[i] = 138.5 + (i / 10) * 0.25;
+		}
+
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		double[] gridConvs = new double[size];
+		double[] scaleFactors = new double[size];
+		survey.bl2xy(latitudes, longitudes, 0, size, Zone.System09, xs, ys, gridConvs, scaleFactors);
+
+		double[] inverseLatitudes = new double[size];
+		double[] inverseLongitudes = new double[size];
+		double[] inverseGridConvs = new double[size];
+		double[] inverseScaleFactors = new double[size];
+		survey.xy2bl(xs, ys, 0, size, Zone.System09, inverseLatitudes, inverseLongitudes, inverseGridConvs, inverseScaleFactors);
+
+		double delta = 1e-5;
+		double[] result = new double[4];
+		double[] south = new double[2];
+		double[] north = new double[2];
+		for (int i = 0; i < size; i++) {
+			// 一括変換と1点変換
+			survey.bl2xy(latitudes[i], longitudes[i], Zone.System09, result);
+			assertEquals(xs[i], result[0], 1e-9);
+			assertEquals(ys[i], result[1], 1e-9);
+			assertEquals(gridConvs[i], result[2], 1e-12);
+			assertEquals(scaleFactors[i], result[3], 1e-12);
+
+			survey.xy2bl(xs[i], ys[i], Zone.System09, result);
+			assertEquals(inverseGridConvs[i], result[2], 1e-12);
+			assertEquals(inverseScaleFactors[i], result[3], 1e-12);
+
+			// 順変換と逆変換
+			assertEquals(gridConvs[i], inverseGridConvs[i], 1e-9);
+			assertEquals(scaleFactors[i], inverseScaleFactors[i], 1e-9);
+
+			// 子午線方向の微小区間から求めた値
+			survey.bl2xy(latitudes[i] - delta, longitudes[i], Zone.System09, south);
+			survey.bl2xy(latitudes[i] + delta, longitudes[i], Zone.System09, north);
+			double dx = north[0] - south[0];
+			double dy = north[1] - south[1];
+			assertEquals(Math.toDegrees(Math.atan2(dy, dx)), gridConvs[i], 1e-6);
+
+			double sin = Math.sin(Math.toRadians(latitudes[i]));
+			double w2 = 1.0 - kei.getE2() * sin * sin;
+			double m = kei.a * (1.0 - kei.getE2()) / (w2 * Math.sqrt(w2));
+			assertEquals(Math.hypot(dx, dy) / (m * Math.toRadians(2.0 * delta)), scaleFactors[i], 1e-8);
+		}
+
+		// 中央子午線上では真北方向角0、原点では縮尺係数は原点の縮尺係数
+		survey.xy2bl(0.0, 0.0, Zone.System09, result);
+		assertEquals(0.0, result[2], 1e-12);
+		assertEquals(survey.getScaleFactor(), result[3], 1e-12);
+		survey.bl2xy(40.0, Zone.System09.getLongitude().toDegree(), Zone.System09, result);
+		assertEquals(0.0, result[2], 1e-12);
+	}
+}
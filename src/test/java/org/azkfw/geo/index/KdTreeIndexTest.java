@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.index;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class KdTreeIndexTest extends TestCase {
+
+	@Test
+	public void test() {
+		SurveyUtility survey = new SurveyUtility();
+		Random random = new Random(1);
+
+		int size = 5000;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = random.nextDouble() * 10000.0;
+			ys[i] = random.nextDouble() * 10000.0;
+		}
+
+		KdTreeIndex index = KdTreeIndex.buildXY(survey, Zone.System09, xs, ys);
+		assertEquals(size, index.size());
+
+		KdTreeIndex.Searcher searcher = index.newSearcher();
+		int[] results = new int[5];
+		double[] distances = new double[5];
+		for (int n = 0; n < 200; n++) {
+			double x = random.nextDouble() * 10000.0;
+			double y = random.nextDouble() * 10000.0;
+
+			int expected = -1;
+			double best = Double.MAX_VALUE;
+			int within = 0;
+			for (int i = 0; i < size; i++) {
+				double d = Math.hypot(x - xs[i], y - ys[i]);
+				if (d < best) {
+					best = d;
+					expected = i;
+				}
+				if (d <= 300.0) {
+					within++;
+				}
+			}
+
+			assertEquals(expected, searcher.nearestXY(x, y));
+			assertEquals(best, searcher.getDistance(), 1e-9);
+
+			assertEquals(5, searcher.nearestXY(x, y, 5, results, distances));
+			assertEquals(expected, results[0]);
+			for (int i = 1; i < 5; i++) {
+				assertTrue(distances[i - 1] <= distances[i]);
+			}
+
+			assertEquals(within, searcher.withinXY(x, y, 300.0, new int[0]));
+		}
+	}
+
+	@Test
+	public void testLatLon() {
+		SurveyUtility survey = new SurveyUtility();
+
+		double[] latitudes = { 36.0, 36.1, 35.9, 36.05 };
+		double[] longitudes = { 139.8333, 139.9, 139.7, 139.85 };
+
+		KdTreeIndex index = KdTreeIndex.build(survey, Zone.System09, latitudes, longitudes);
+		assertEquals(3, index.nearest(36.04, 139.86));
+		assertEquals(0, index.nearest(36.0, 139.8333));
+
+		assertEquals(-1, KdTreeIndex.build(survey, Zone.System09, new double[0], new double[0]).nearest(36.0, 139.8));
+	}
+
+	@Test
+	public void testBulk() throws Exception {
+		SurveyUtility survey = new SurveyUtility();
+		Random random = new Random(2);
+
+		int size = 3000;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = 36.0 + random.nextDouble() * 0.1;
+			longitudes[i] = 139.8 + random.nextDouble() * 0.1;
+		}
+		KdTreeIndex index = KdTreeIndex.build(survey, Zone.System09, latitudes, longitudes);
+
+		int count = 2000;
+		double[] lats = new double[count];
+		double[] lons = new double[count];
+		for (int i = 0; i < count; i++) {
+			lats[i] = 36.0 + random.nextDouble() * 0.1;
+			lons[i] = 139.8 + random.nextDouble() * 0.1;
+		}
+
+		int k = 4;
+		int[] results = new int[count * k];
+		double[] distances = new double[count * k];
+		int[] counts = new int[count];
+		int[] offsets = new int[count + 1];
+		int[] withins;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			index.nearest(lats, lons, k, results, distances, counts, executor);
+			withins = index.within(lats, lons, 200.0, offsets, executor);
+		} finally {
+			executor.shutdown();
+		}
+
+		// 一括検索は1点ずつの検索と一致
+		KdTreeIndex.Searcher searcher = index.newSearcher();
+		int[] expected = new int[k];
+		double[] expectedDistances = new double[k];
+		int[] buffer = new int[size];
+		for (int i = 0; i < count; i++) {
+			assertEquals(k, counts[i]);
+			assertEquals(k, searcher.nearest(lats[i], lons[i], k, expected, expectedDistances));
+			for (int j = 0; j < k; j++) {
+				assertEquals(expected[j], results[i * k + j]);
+				assertEquals(expectedDistances[j], distances[i * k + j], 0.0);
+			}
+
+			int n = searcher.within(lats[i], lons[i], 200.0, buffer);
+			assertEquals(n, offsets[i + 1] - offsets[i]);
+			int[] actual = Arrays.copyOfRange(withins, offsets[i], offsets[i + 1]);
+			int[] sorted = Arrays.copyOf(buffer, n);
+			Arrays.sort(actual);
+			Arrays.sort(sorted);
+			assertTrue(Arrays.equals(sorted, actual));
+		}
+		assertEquals(withins.length, offsets[count]);
+	}
+}
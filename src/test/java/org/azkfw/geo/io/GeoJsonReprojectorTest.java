@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.azkfw.geo.io.AbstractReprojector.Direction;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class GeoJsonReprojectorTest extends TestCase {
+
+	private static final String DOCUMENT = "{\"type\":\"FeatureCollection\",\"bbox\":[139.0,35.0,140.0,36.0],"
+			+ "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"urn:ogc:def:crs:OGC:1.3:CRS84\"}},\"features\":["
+			+ "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[139.8,36.0,12.5]},"
+			+ "\"properties\":{\"name\":\"a\",\"coordinates\":[\"a\"],\"bbox\":[1,2],\"n\":1.5,\"b\":true,\"z\":null,"
+			+ "\"nested\":{\"type\":\"Point\",\"coordinates\":[139.0,35.0]}}},"
+			+ "{\"type\":\"Feature\",\"bbox\":[139.7,35.9,139.9,36.1],\"geometry\":{\"type\":\"LineString\","
+			+ "\"coordinates\":[[139.7,35.9,1.0,100.0],[139.9,36.1,2.0,200.0]]},\"properties\":null},"
+			+ "{\"type\":\"Feature\",\"geometry\":{\"type\":\"MultiPolygon\",\"coordinates\":[[[[139.7,35.9],[139.9,35.9],"
+			+ "[139.9,36.1],[139.7,35.9]],[[139.8,35.95],[139.85,35.95],[139.85,36.0],[139.8,35.95]]],"
+			+ "[[[139.6,35.8],[139.65,35.8],[139.65,35.85],[139.6,35.8]]]]},\"properties\":{}},"
+			+ "{\"type\":\"Feature\",\"geometry\":{\"type\":\"GeometryCollection\",\"geometries\":["
+			+ "{\"type\":\"Point\",\"coordinates\":[139.75,35.95]},"
+			+ "{\"type\":\"MultiLineString\",\"coordinates\":[[[139.7,35.9],[139.8,36.0]],[[139.6,35.7],[139.65,35.75]]]}]},"
+			+ "\"properties\":{\"id\":4}}]}";
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		SurveyUtility survey = new SurveyUtility();
+		// バッチがFeatureをまたぐよう小さいバッチサイズとする
+		GeoJsonReprojector forward = new GeoJsonReprojector(survey, Zone.System09, Direction.BL2XY, 3);
+		GeoJsonReprojector inverse = new GeoJsonReprojector(survey, Zone.System09, Direction.XY2BL, 3);
+
+		String xy = reproject(forward, DOCUMENT);
+		JsonObject projected = parse(xy).getAsJsonObject();
+		assertNull(projected.get("bbox"));
+		assertNull(projected.get("crs"));
+
+		JsonArray point = projected.getAsJsonArray("features").get(0).getAsJsonObject().getAsJsonObject("geometry")
+				.getAsJsonArray("coordinates");
+		double[] expected = new double[2];
+		survey.bl2xy(36.0, 139.8, Zone.System09, expected);
+		assertEquals(expected[1], point.get(0).getAsDouble(), 1e-6);
+		assertEquals(expected[0], point.get(1).getAsDouble(), 1e-6);
+		assertEquals(12.5, point.get(2).getAsDouble(), 0.0);
+
+		JsonObject original = parse(DOCUMENT).getAsJsonObject();
+		original.remove("bbox");
+		original.remove("crs");
+		original.getAsJsonArray("features").get(1).getAsJsonObject().remove("bbox");
+
+		// プロパティはそのまま
+		for (int i = 0; i < 4; i++) {
+			assertEquals(original.getAsJsonArray("features").get(i).getAsJsonObject().get("properties"),
+					projected.getAsJsonArray("features").get(i).getAsJsonObject().get("properties"));
+		}
+
+		JsonElement result = parse(reproject(inverse, xy));
+		assertJsonEquals(original, result);
+
+		// バッチサイズによらず出力は一致
+		GeoJsonReprojector large = new GeoJsonReprojector(survey, Zone.System09, Direction.BL2XY);
+		assertEquals(reproject(large, DOCUMENT), xy);
+	}
+
+	@Test
+	public void testInvalidCoordinates() throws Exception {
+		SurveyUtility survey = new SurveyUtility();
+		GeoJsonReprojector reprojector = new GeoJsonReprojector(survey, Zone.System09, Direction.BL2XY);
+		try {
+			reproject(reprojector, "{\"type\":\"Point\",\"coordinates\":[\"a\",\"b\"]}");
+			fail();
+		} catch (IOException ex) {
+		}
+		try {
+			reproject(reprojector, "{\"type\":\"Point\",\"coordinates\":[139.0]}");
+			fail();
+		} catch (IOException ex) {
+		}
+	}
+
+	private static String reproject(final GeoJsonReprojector reprojector, final String json) throws IOException {
+		StringWriter writer = new StringWriter();
+		reprojector.reproject(new StringReader(json), writer);
+		return writer.toString();
+	}
+
+	@SuppressWarnings("deprecation")
+	private static JsonElement parse(final String json) {
+		return new JsonParser().parse(json);
+	}
+
+	private static void assertJsonEquals(final JsonElement expected, final JsonElement actual) {
+		if (expected.isJsonObject()) {
+			assertTrue(actual.isJsonObject());
+			JsonObject e = expected.getAsJsonObject();
+			JsonObject a = actual.getAsJsonObject();
+			assertEquals(e.entrySet().size(), a.entrySet().size());
+			for (Map.Entry<String, JsonElement> entry : e.entrySet()) {
+				assertTrue(a.has(entry.getKey()));
+				assertJsonEquals(entry.getValue(), a.get(entry.getKey()));
+			}
+		} else if (expected.isJsonArray()) {
+			assertTrue(actual.isJsonArray());
+			JsonArray e = expected.getAsJsonArray();
+			JsonArray a = actual.getAsJsonArray();
+			assertEquals(e.size(), a.size());
+			for (int i = 0; i < e.size(); i++) {
+				assertJsonEquals(e.get(i), a.get(i));
+			}
+		} else if (expected.isJsonPrimitive() && expected.getAsJsonPrimitive().isNumber()) {
+			assertEquals(expected.getAsDouble(), actual.getAsDouble(), 1e-9);
+		} else {
+			assertEquals(expected, actual);
+		}
+	}
+}
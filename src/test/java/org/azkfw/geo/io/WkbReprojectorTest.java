@@ -0,0 +1,201 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.azkfw.geo.io.AbstractReprojector.Direction;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class WkbReprojectorTest extends TestCase {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+			WkbBuilder builder = new WkbBuilder(order);
+			// ISO Point Z
+			builder.header(1001).position(139.8, 36.0, 12.5);
+			// ISO LineString ZM
+			builder.header(3002).count(2).position(139.7, 35.9, 1.0, 100.0).position(139.9, 36.1, 2.0, 200.0);
+			// EWKB Polygon Z + SRID
+			builder.header(0xA0000003).srid(6668).count(2);
+			builder.count(4).position(139.7, 35.9, 0.0).position(139.9, 35.9, 0.0).position(139.9, 36.1, 0.0).position(139.7, 35.9, 0.0);
+			builder.count(4).position(139.8, 35.95, 1.0).position(139.85, 35.95, 1.0).position(139.85, 36.0, 1.0).position(139.8, 35.95, 1.0);
+			// ISO MultiPoint M
+			builder.header(2004).count(2);
+			builder.header(2001).position(139.75, 35.95, 7.0);
+			builder.header(2001).position(139.76, 35.96, 8.0);
+			// GeometryCollection(EWKB Point M + SRID, LineString)
+			builder.header(7).count(2);
+			builder.header(0x60000001).srid(4326).position(139.6, 35.7, 9.0);
+			builder.header(2).count(2).position(139.6, 35.7).position(139.65, 35.75);
+			byte[] wkb = builder.toByteArray();
+
+			SurveyUtility survey = new SurveyUtility();
+			// バッチをまたぐよう小さいバッチサイズとする
+			WkbReprojector forward = new WkbReprojector(survey, Zone.System09, Direction.BL2XY, 3);
+			WkbReprojector inverse = new WkbReprojector(survey, Zone.System09, Direction.XY2BL, 3);
+
+			byte[] xy = forward.reproject(wkb);
+			assertEquals(wkb.length, xy.length);
+			double[] expected = new double[2];
+			survey.bl2xy(36.0, 139.8, Zone.System09, expected);
+			ByteBuffer buffer = ByteBuffer.wrap(xy).order(order);
+			assertEquals(expected[1], buffer.getDouble(builder.offsets.get(0)), 1e-6);
+			assertEquals(expected[0], buffer.getDouble(builder.offsets.get(0) + 8), 1e-6);
+
+			byte[] result = inverse.reproject(xy);
+			assertEquals(wkb.length, result.length);
+
+			// 座標(東方向、北方向)以外は一致
+			boolean[] coordinate = new boolean[wkb.length];
+			ByteBuffer expectedBuffer = ByteBuffer.wrap(wkb).order(order);
+			ByteBuffer resultBuffer = ByteBuffer.wrap(result).order(order);
+			for (int offset : builder.offsets) {
+				assertEquals(expectedBuffer.getDouble(offset), resultBuffer.getDouble(offset), 1e-9);
+				assertEquals(expectedBuffer.getDouble(offset + 8), resultBuffer.getDouble(offset + 8), 1e-9);
+				Arrays.fill(coordinate, offset, offset + 16, true);
+			}
+			for (int i = 0; i < wkb.length; i++) {
+				if (!coordinate[i]) {
+					assertEquals(wkb[i], result[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		int size = 10000;
+		WkbBuilder builder = new WkbBuilder(ByteOrder.LITTLE_ENDIAN, size * 21 + 9);
+		builder.header(4).count(size);
+		for (int i = 0; i < size; i++) {
+			builder.header(1).position(139.5 + i * 0.00003, 35.5 + i * 0.00002);
+		}
+		byte[] wkb = builder.toByteArray();
+
+		// 変換の呼び出し回数を数える
+		final int[] calls = new int[1];
+		SurveyUtility survey = new SurveyUtility() {
+			@Override
+			public void bl2xy(final double[] latitudes, final double[] longitudes, final int start, final int end, final Zone zone,
+					final double[] xs, final double[] ys) {
+				calls[0]++;
+				super.bl2xy(latitudes, longitudes, start, end, zone, xs, ys);
+			}
+		};
+		WkbReprojector reprojector = new WkbReprojector(survey, Zone.System09, Direction.BL2XY);
+		byte[] xy = reprojector.reproject(wkb);
+
+		// ジオメトリをまたいでバッチサイズ単位で変換する
+		int batchSize = AbstractReprojector.DEFAULT_BATCH_SIZE;
+		assertEquals((size + batchSize - 1) / batchSize, calls[0]);
+		assertEquals(wkb.length, xy.length);
+
+		ByteBuffer buffer = ByteBuffer.wrap(xy).order(ByteOrder.LITTLE_ENDIAN);
+		double[] expected = new double[2];
+		for (int i = 0; i < size; i++) {
+			survey.bl2xy(35.5 + i * 0.00002, 139.5 + i * 0.00003, Zone.System09, expected);
+			int offset = builder.offsets.get(i);
+			assertEquals(expected[1], buffer.getDouble(offset), 1e-6);
+			assertEquals(expected[0], buffer.getDouble(offset + 8), 1e-6);
+		}
+		for (int i = 0; i < 9; i++) {
+			assertEquals(wkb[i], xy[i]);
+		}
+	}
+
+	@Test
+	public void testInvalid() throws Exception {
+		WkbReprojector reprojector = new WkbReprojector(new SurveyUtility(), Zone.System09, Direction.BL2XY);
+		try {
+			reprojector.reproject(new WkbBuilder(ByteOrder.BIG_ENDIAN).header(99).toByteArray());
+			fail();
+		} catch (IOException ex) {
+		}
+		try {
+			// 座標が不足
+			reprojector.reproject(new WkbBuilder(ByteOrder.LITTLE_ENDIAN).header(2).count(2).position(139.0, 35.0).toByteArray());
+			fail();
+		} catch (IOException ex) {
+		}
+	}
+
+	/**
+	 * WKBを生成するクラス
+	 */
+	private static class WkbBuilder {
+
+		private final ByteOrder order;
+		private final ByteBuffer buffer;
+		private final List<Integer> offsets = new ArrayList<Integer>();
+
+		public WkbBuilder(final ByteOrder aOrder) {
+			this(aOrder, 4096);
+		}
+
+		public WkbBuilder(final ByteOrder aOrder, final int aCapacity) {
+			order = aOrder;
+			buffer = ByteBuffer.allocate(aCapacity).order(aOrder);
+		}
+
+		public WkbBuilder header(final int type) {
+			buffer.put((byte) (ByteOrder.BIG_ENDIAN == order ? 0 : 1));
+			buffer.putInt(type);
+			return this;
+		}
+
+		public WkbBuilder srid(final int srid) {
+			buffer.putInt(srid);
+			return this;
+		}
+
+		public WkbBuilder count(final int count) {
+			buffer.putInt(count);
+			return this;
+		}
+
+		public WkbBuilder position(final double lon, final double lat, final double... others) {
+			offsets.add(buffer.position());
+			buffer.putDouble(lon);
+			buffer.putDouble(lat);
+			for (double other : others) {
+				buffer.putDouble(other);
+			}
+			return this;
+		}
+
+		public byte[] toByteArray() {
+			return Arrays.copyOf(buffer.array(), buffer.position());
+		}
+	}
+}
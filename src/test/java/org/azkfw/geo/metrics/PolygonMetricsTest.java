@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.metrics;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SokuchiKei;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.azkfw.geo.metrics.PolygonMetrics.Mode;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class PolygonMetricsTest extends TestCase {
+
+	@Test
+	public void testPlane() {
+		PolygonMetrics metrics = new PolygonMetrics(new SurveyUtility(), Zone.System09);
+
+		double[] xs = new double[] { 1000.0, 1000.0, 1100.0, 1100.0 };
+		double[] ys = new double[] { 2000.0, 2100.0, 2100.0, 2000.0 };
+		double[] areas = new double[1];
+		double[] perimeters = new double[1];
+		double[] centroidXs = new double[1];
+		double[] centroidYs = new double[1];
+		metrics.computeXY(false, xs, ys, new int[] { 0, 4 }, new int[] { 0, 1 }, areas, perimeters, centroidXs, centroidYs, null);
+
+		assertEquals(10000.0, areas[0], 1e-9);
+		assertEquals(400.0, perimeters[0], 1e-9);
+		assertEquals(1050.0, centroidXs[0], 1e-9);
+		assertEquals(2050.0, centroidYs[0], 1e-9);
+	}
+
+	@Test
+	public void testHole() {
+		PolygonMetrics metrics = new PolygonMetrics(new SurveyUtility(), Zone.System09);
+
+		// 外周(反時計回り)と左下の穴(時計回り)
+		double[] xs = new double[] { 1000.0, 1100.0, 1100.0, 1000.0, 1000.0, 1000.0, 1050.0, 1050.0 };
+		double[] ys = new double[] { 2000.0, 2000.0, 2100.0, 2100.0, 2000.0, 2050.0, 2050.0, 2000.0 };
+		double[] areas = new double[1];
+		double[] perimeters = new double[1];
+		double[] centroidXs = new double[1];
+		double[] centroidYs = new double[1];
+		metrics.computeXY(false, xs, ys, new int[] { 0, 4, 8 }, new int[] { 0, 2 }, areas, perimeters, centroidXs, centroidYs, null);
+
+		assertEquals(7500.0, areas[0], 1e-9);
+		assertEquals(600.0, perimeters[0], 1e-9);
+		assertEquals(1000.0 + 175.0 / 3.0, centroidXs[0], 1e-9);
+		assertEquals(2000.0 + 175.0 / 3.0, centroidYs[0], 1e-9);
+	}
+
+	@Test
+	public void testEllipsoid() {
+		SurveyUtility survey = new SurveyUtility();
+		PolygonMetrics metrics = new PolygonMetrics(survey, Zone.System09);
+
+		double[] latitudes = new double[] { 35.0, 35.0, 36.0, 36.0 };
+		double[] longitudes = new double[] { 139.0, 140.0, 140.0, 139.0 };
+		double[] areas = new double[1];
+		double[] centroidLatitudes = new double[1];
+		double[] centroidLongitudes = new double[1];
+		metrics.compute(Mode.ELLIPSOID, latitudes, longitudes, new int[] { 0, 4 }, new int[] { 0, 1 }, areas, null, centroidLatitudes,
+				centroidLongitudes, null);
+
+		// 緯度φ1〜φ2、経度差Δλの区画の面積 = a^2(1-e^2)Δλ(q(φ2) - q(φ1)) / 2
+		SokuchiKei kei = SokuchiKei.GRS80;
+		double expected = kei.a * kei.a * (1.0 - kei.getE2()) * Math.toRadians(1.0) * (q(kei, 36.0) - q(kei, 35.0)) / 2.0;
+		assertEquals(1.0, areas[0] / expected, 1e-9);
+		assertEquals(139.5, centroidLongitudes[0], 1e-9);
+		assertEquals(35.5, centroidLatitudes[0], 0.01);
+	}
+
+	@Test
+	public void testScaled() {
+		SurveyUtility survey = new SurveyUtility();
+		PolygonMetrics metrics = new PolygonMetrics(survey, Zone.System09);
+		double m0 = survey.getScaleFactor();
+
+		// 原点付近では縮尺係数は原点の縮尺係数に等しい
+		double[] xs = new double[] { -50.0, 50.0, 50.0, -50.0 };
+		double[] ys = new double[] { -50.0, -50.0, 50.0, 50.0 };
+		int[] ringOffsets = new int[] { 0, 4 };
+		int[] polygonOffsets = new int[] { 0, 1 };
+		double[] areas = new double[1];
+		double[] perimeters = new double[1];
+		double[] scaledAreas = new double[1];
+		double[] scaledPerimeters = new double[1];
+		metrics.computeXY(false, xs, ys, ringOffsets, polygonOffsets, areas, perimeters, null, null, null);
+		metrics.computeXY(true, xs, ys, ringOffsets, polygonOffsets, scaledAreas, scaledPerimeters, null, null, null);
+		assertEquals(areas[0] / (m0 * m0), scaledAreas[0], 1e-6);
+		assertEquals(perimeters[0] / m0, scaledPerimeters[0], 1e-6);
+
+		double[] latitudes = new double[4];
+		double[] longitudes = new double[4];
+		double[] bl = new double[2];
+		for (int i = 0; i < 4; i++) {
+			survey.xy2bl(xs[i], ys[i], Zone.System09, bl);
+			latitudes[i] = bl[0];
+			longitudes[i] = bl[1];
+		}
+		double[] centroidLatitudes = new double[1];
+		double[] centroidLongitudes = new double[1];
+		metrics.compute(Mode.PLANE, latitudes, longitudes, ringOffsets, polygonOffsets, areas, null, null, null, null);
+		metrics.compute(Mode.PLANE_SCALED, latitudes, longitudes, ringOffsets, polygonOffsets, scaledAreas, null, centroidLatitudes,
+				centroidLongitudes, null);
+		assertEquals(areas[0] / (m0 * m0), scaledAreas[0], 1e-6);
+		assertEquals(Zone.System09.getLatitude().toDegree(), centroidLatitudes[0], 1e-9);
+		assertEquals(Zone.System09.getLongitude().toDegree(), centroidLongitudes[0], 1e-9);
+
+		// 縮尺補正した面積は楕円体上の面積に一致する
+		double[] ellipsoidAreas = new double[1];
+		metrics.compute(Mode.ELLIPSOID, latitudes, longitudes, ringOffsets, polygonOffsets, ellipsoidAreas, null, null, null, null);
+		assertEquals(1.0, scaledAreas[0] / ellipsoidAreas[0], 1e-6);
+	}
+
+	private static double q(final SokuchiKei kei, final double latitude) {
+		double e = kei.getE();
+		double sin = Math.sin(Math.toRadians(latitude));
+		return sin / (1.0 - e * e * sin * sin) + Math.log((1.0 + e * sin) / (1.0 - e * sin)) / (2.0 * e);
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SokuchiAPI;
+import org.azkfw.geo.SokuchiAPI.Bl2xyEntity;
+import org.azkfw.geo.SokuchiAPI.SokuchiKei;
+import org.azkfw.geo.SokuchiAPI.Xy2blEntity;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiServerTest extends TestCase {
+
+	@Test
+	public void testPost() throws IOException {
+		SokuchiServer server = new SokuchiServer();
+		server.start();
+		try {
+			String url = server.getUrl() + SokuchiService.BL2XY + "?zone=9";
+
+			// バッファ内に収まる場合
+			HttpURLConnection connection = post(url, points(10, -1));
+			assertEquals(200, connection.getResponseCode());
+			assertTrue(0 < connection.getContentLength());
+			assertEquals(10, parse(read(connection.getInputStream())).size());
+
+			connection = post(url, points(10, 5));
+			assertEquals(400, connection.getResponseCode());
+
+			// 逐次送信する場合
+			int size = SokuchiService.BATCH_SIZE * 5;
+			connection = post(url, points(size, -1));
+			assertEquals(200, connection.getResponseCode());
+			assertEquals(-1, connection.getContentLength());
+			assertEquals(size, parse(read(connection.getInputStream())).size());
+
+			// 送信開始前に入力の誤りを検出した場合
+			connection = post(url, points(size, 10));
+			assertEquals(400, connection.getResponseCode());
+
+			// 送信開始後に入力の誤りを検出した場合は切断する
+			connection = post(url, points(size, size - 10));
+			assertEquals(200, connection.getResponseCode());
+			try {
+				read(connection.getInputStream());
+				fail();
+			} catch (IOException ex) {
+				// レスポンスが完了していない
+			}
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testLocale() throws IOException {
+		// 小数点がカンマとなるロケールでも、SokuchiAPIで読み込める形式で返す
+		Locale locale = Locale.getDefault();
+		Locale.setDefault(Locale.GERMANY);
+		SokuchiServer server = new SokuchiServer();
+		try {
+			server.start();
+			SokuchiAPI api = new SokuchiAPI(SokuchiKei.World, server.getUrl());
+
+			double[] xy = new double[4];
+			new SurveyUtility().bl2xy(35.658099, 139.741358, Zone.System09, xy);
+			Bl2xyEntity bl2xy = api.bl2xy(35.658099, 139.741358, Zone.System09);
+			assertNotNull(bl2xy);
+			assertEquals(xy[0], bl2xy.publicX, 1e-4);
+			assertEquals(xy[1], bl2xy.publicY, 1e-4);
+			assertEquals(xy[2], bl2xy.gridConv, 1e-9);
+			assertEquals(xy[3], bl2xy.scaleFactor, 1e-9);
+
+			Xy2blEntity xy2bl = api.xy2bl(xy[0], xy[1], Zone.System09);
+			assertNotNull(xy2bl);
+			assertEquals(35.658099, xy2bl.latitude, 1e-9);
+			assertEquals(139.741358, xy2bl.longitude, 1e-9);
+		} finally {
+			server.stop();
+			Locale.setDefault(locale);
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private static JsonArray parse(final String json) {
+		return new JsonParser().parse(json).getAsJsonObject().getAsJsonArray("OutputData");
+	}
+
+	private static String points(final int size, final int invalid) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (0 < i) {
+				sb.append(",");
+			}
+			sb.append("[").append(35.5 + i * 0.0001).append(",").append(139.5 + i * 0.0001);
+			if (i == invalid) {
+				sb.append(",0.0");
+			}
+			sb.append("]");
+		}
+		return sb.append("]").toString();
+	}
+
+	private static HttpURLConnection post(final String url, final String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		OutputStream out = connection.getOutputStream();
+		out.write(body.getBytes("UTF-8"));
+		out.close();
+		return connection;
+	}
+
+	private static String read(final InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int size;
+		try {
+			while (-1 != (size = in.read(buffer))) {
+				out.write(buffer, 0, size);
+			}
+		} finally {
+			in.close();
+		}
+		return out.toString("UTF-8");
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.server;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiServiceTest extends TestCase {
+
+	@Test
+	public void test() {
+		SokuchiService service = new SokuchiService();
+
+		Map<String, String> params = SokuchiService.parseQuery("outputType=json&refFrame=2&zone=9&latitude=36.103774792&longitude=140.087855042");
+		JsonObject data = service.convert(SokuchiService.BL2XY, params).getAsJsonObject("OutputData");
+		assertEquals("11543.6884", data.get("publicX").getAsString());
+		assertEquals("22916.2436", data.get("publicY").getAsString());
+		assertEquals("-0.149977465", data.get("gridConv").getAsString());
+		assertEquals("0.999906469", data.get("scaleFactor").getAsString());
+
+		params = SokuchiService.parseQuery("outputType=json&refFrame=2&zone=9&publicX=11543.6884&publicY=22916.2436");
+		data = service.convert(SokuchiService.XY2BL, params).getAsJsonObject("OutputData");
+		assertEquals("36.103774792", data.get("latitude").getAsString());
+		assertEquals("140.087855042", data.get("longitude").getAsString());
+
+		assertNull(service.convert("unknown.pl", params));
+		try {
+			service.convert(SokuchiService.BL2XY, SokuchiService.parseQuery("zone=20&latitude=36&longitude=140"));
+			fail();
+		} catch (IllegalArgumentException ex) {
+			// 系番号が不正
+		}
+	}
+
+	@Test
+	public void testBatch() throws IOException {
+		SokuchiService service = new SokuchiService();
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 2500;
+		StringBuilder in = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (0 < i) {
+				in.append(",");
+			}
+			in.append("[").append(35.5 + i * 0.0003).append(",").append(139.5 + i * 0.0002).append("]");
+		}
+		in.append("]");
+
+		StringWriter out = new StringWriter();
+		int count = service.convert(SokuchiService.BL2XY, SokuchiService.parseQuery("zone=9"), new StringReader(in.toString()), out);
+		assertEquals(size, count);
+
+		JsonArray results = new JsonParser().parse(out.toString()).getAsJsonObject().getAsJsonArray("OutputData");
+		assertEquals(size, results.size());
+		double[] xy = new double[4];
+		for (int i = 0; i < size; i++) {
+			survey.bl2xy(35.5 + i * 0.0003, 139.5 + i * 0.0002, Zone.System09, xy);
+			JsonObject result = results.get(i).getAsJsonObject();
+			assertEquals(xy[0], result.get("publicX").getAsDouble(), 0.0);
+			assertEquals(xy[1], result.get("publicY").getAsDouble(), 0.0);
+			assertEquals(xy[2], result.get("gridConv").getAsDouble(), 0.0);
+			assertEquals(xy[3], result.get("scaleFactor").getAsDouble(), 0.0);
+		}
+
+		try {
+			service.convert(SokuchiService.XY2BL, SokuchiService.parseQuery("zone=9"), new StringReader("[[1.0, 2.0, 3.0]]"), new StringWriter());
+			fail();
+		} catch (IllegalArgumentException ex) {
+			// 座標の要素数が不正
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class AbstractBatchProcessorTest extends TestCase {
+
+	@Test
+	public void testDemandAndOrder() throws Exception {
+		final int batchSize = 8;
+		final int size = 20000;
+		final Random random = new Random(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final TestProcessor processor = new TestProcessor(executor, batchSize, null, -1);
+			final ManualSubscription upstream = new ManualSubscription();
+			final TestSubscriber downstream = new TestSubscriber() {
+				@Override
+				public void onNext(final Integer item) {
+					super.onNext(item);
+					if (received.size() == demand.get()) {
+						request(1 + random.nextInt(2 * batchSize));
+					}
+				}
+			};
+			upstream.downstreamDemand = downstream.demand;
+			upstream.maxBuffer = batchSize * 2;
+
+			processor.onSubscribe(upstream);
+			processor.subscribe(downstream);
+			downstream.request(1);
+
+			// 上流への要求分のみ送信する
+			int sent = 0;
+			long deadline = System.currentTimeMillis() + 30000;
+			while (sent < size && System.currentTimeMillis() < deadline) {
+				if (sent < upstream.requested.get()) {
+					processor.onNext(sent++);
+				} else {
+					Thread.yield();
+				}
+			}
+			processor.onComplete();
+
+			assertTrue(downstream.done.await(30, TimeUnit.SECONDS));
+			assertNull(downstream.error);
+			assertFalse(upstream.violated);
+			assertEquals(size, downstream.received.size());
+			for (int i = 0; i < size; i++) {
+				assertEquals(i, (int) downstream.received.get(i));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCompleteAfterDrain() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch gate = new CountDownLatch(1);
+			TestProcessor processor = new TestProcessor(executor, 4, gate, -1);
+			ManualSubscription upstream = new ManualSubscription();
+			TestSubscriber downstream = new TestSubscriber();
+
+			processor.onSubscribe(upstream);
+			processor.subscribe(downstream);
+			downstream.request(4);
+			assertEquals(4, upstream.requested.get());
+			for (int i = 0; i < 4; i++) {
+				processor.onNext(i);
+			}
+			processor.onComplete();
+
+			// 変換中は完了を通知しない
+			assertFalse(downstream.done.await(100, TimeUnit.MILLISECONDS));
+			assertTrue(downstream.received.isEmpty());
+
+			gate.countDown();
+			assertTrue(downstream.done.await(10, TimeUnit.SECONDS));
+			assertTrue(downstream.completed);
+			assertEquals(4, downstream.receivedAtTermination);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		TestProcessor processor = new TestProcessor(null, 4, null, -1);
+		ManualSubscription upstream = new ManualSubscription();
+		TestSubscriber downstream = new TestSubscriber();
+
+		processor.onSubscribe(upstream);
+		processor.subscribe(downstream);
+		downstream.request(2);
+		processor.onNext(0);
+		processor.onNext(1);
+		assertEquals(2, downstream.received.size());
+
+		downstream.subscription.cancel();
+		assertTrue(upstream.cancelled);
+
+		// キャンセル後は通知しない
+		downstream.request(2);
+		processor.onNext(2);
+		processor.onComplete();
+		assertEquals(2, downstream.received.size());
+		assertEquals(1, downstream.done.getCount());
+	}
+
+	@Test
+	public void testInvalidRequest() throws Exception {
+		TestProcessor processor = new TestProcessor(null, 4, null, -1);
+		ManualSubscription upstream = new ManualSubscription();
+		TestSubscriber downstream = new TestSubscriber();
+
+		processor.onSubscribe(upstream);
+		processor.subscribe(downstream);
+		downstream.request(0);
+
+		assertTrue(upstream.cancelled);
+		assertTrue(downstream.done.await(10, TimeUnit.SECONDS));
+		assertTrue(downstream.error instanceof IllegalArgumentException);
+	}
+
+	@Test
+	public void testProcessError() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			for (TestProcessor processor : new TestProcessor[] { new TestProcessor(executor, 2, null, 3), new ErrorProcessor(executor, 2, 3) }) {
+				ManualSubscription upstream = new ManualSubscription();
+				TestSubscriber downstream = new TestSubscriber();
+
+				processor.onSubscribe(upstream);
+				processor.subscribe(downstream);
+				downstream.request(10);
+				for (int i = 0; i < 4; i++) {
+					processor.onNext(i);
+				}
+
+				assertTrue(downstream.done.await(10, TimeUnit.SECONDS));
+				assertTrue(upstream.cancelled);
+				assertFalse(downstream.completed);
+				if (processor instanceof ErrorProcessor) {
+					assertTrue(downstream.error instanceof AssertionError);
+				} else {
+					assertTrue(downstream.error instanceof IllegalStateException);
+				}
+				assertEquals(2, downstream.received.size());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * 要素をそのまま返すプロセッサ
+	 */
+	private static class TestProcessor extends AbstractBatchProcessor<Integer, Integer> {
+
+		private final CountDownLatch gate;
+		private final int failAt;
+
+		public TestProcessor(final Executor aExecutor, final int aBatchSize, final CountDownLatch aGate, final int aFailAt) {
+			super(aExecutor, aBatchSize);
+			gate = aGate;
+			failAt = aFailAt;
+		}
+
+		@Override
+		protected List<Integer> process(final List<Integer> batch) {
+			if (null != gate) {
+				try {
+					gate.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (batch.contains(failAt)) {
+				throw new IllegalStateException("failed. " + failAt);
+			}
+			return new ArrayList<Integer>(batch);
+		}
+	}
+
+	/**
+	 * 変換時にErrorを投げるプロセッサ
+	 */
+	private static class ErrorProcessor extends TestProcessor {
+
+		private final int errorAt;
+
+		public ErrorProcessor(final Executor aExecutor, final int aBatchSize, final int aErrorAt) {
+			super(aExecutor, aBatchSize, null, -1);
+			errorAt = aErrorAt;
+		}
+
+		@Override
+		protected List<Integer> process(final List<Integer> batch) {
+			if (batch.contains(errorAt)) {
+				throw new AssertionError("failed. " + errorAt);
+			}
+			return super.process(batch);
+		}
+	}
+
+	/**
+	 * 要求数を記録する上流
+	 */
+	private static class ManualSubscription implements Subscription {
+
+		private final AtomicLong requested = new AtomicLong();
+		private volatile boolean cancelled;
+
+		private AtomicLong downstreamDemand;
+		private long maxBuffer;
+		private volatile boolean violated;
+
+		@Override
+		public void request(final long n) {
+			long total = requested.addAndGet(n);
+			if (null != downstreamDemand && total > downstreamDemand.get() + maxBuffer) {
+				violated = true;
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+
+	/**
+	 * 受信した要素を記録する下流
+	 */
+	private static class TestSubscriber implements Subscriber<Integer> {
+
+		protected final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		protected final AtomicLong demand = new AtomicLong();
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile Subscription subscription;
+		private volatile Throwable error;
+		private volatile boolean completed;
+		private volatile int receivedAtTermination = -1;
+
+		protected void request(final long n) {
+			// 上流への要求より先に下流の要求数を加算する
+			demand.addAndGet(n);
+			subscription.request(n);
+		}
+
+		@Override
+		public void onSubscribe(final Subscription aSubscription) {
+			subscription = aSubscription;
+		}
+
+		@Override
+		public void onNext(final Integer item) {
+			received.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+			receivedAtTermination = received.size();
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+			receivedAtTermination = received.size();
+			done.countDown();
+		}
+	}
+}
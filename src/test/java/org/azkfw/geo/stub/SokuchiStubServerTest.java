@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.stub;
+
+import junit.framework.TestCase;
+
+import org.apache.http.client.HttpClient;
+import org.azkfw.geo.SokuchiAPI;
+import org.azkfw.geo.SokuchiAPI.Bl2xyEntity;
+import org.azkfw.geo.SokuchiAPI.SokuchiKei;
+import org.azkfw.geo.SokuchiAPI.Xy2blEntity;
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class SokuchiStubServerTest extends TestCase {
+
+	@Test
+	public void testReplayAndCompute() throws Exception {
+		SokuchiStubServer server = new SokuchiStubServer();
+		server.addRecord("bl2xy.pl", "refFrame=2&zone=9&latitude=36.0&longitude=139.0",
+				"{\"OutputData\":{\"publicX\":\"1.5\",\"publicY\":\"2.5\",\"gridConv\":\"0.1\",\"scaleFactor\":\"0.9999\"}}");
+		server.start();
+		try {
+			SokuchiAPI api = new SokuchiAPI(SokuchiKei.World, server.getUrl());
+
+			// 記録済みレスポンス
+			Bl2xyEntity replayed = api.bl2xy(36.0, 139.0, Zone.System09);
+			assertNotNull(replayed);
+			assertEquals(1.5, replayed.publicX, 0.0);
+			assertEquals(2.5, replayed.publicY, 0.0);
+			assertEquals(0.1, replayed.gridConv, 0.0);
+			assertEquals(0.9999, replayed.scaleFactor, 0.0);
+
+			// 計算したレスポンス
+			SurveyUtility survey = new SurveyUtility();
+			double[] xy = new double[4];
+			survey.bl2xy(36.1, 139.9, Zone.System09, xy);
+			Bl2xyEntity computed = api.bl2xy(36.1, 139.9, Zone.System09);
+			assertNotNull(computed);
+			assertEquals(xy[0], computed.publicX, 1e-4);
+			assertEquals(xy[1], computed.publicY, 1e-4);
+			assertEquals(xy[2], computed.gridConv, 1e-9);
+			assertEquals(xy[3], computed.scaleFactor, 1e-9);
+
+			Xy2blEntity inverse = api.xy2bl(xy[0], xy[1], Zone.System09);
+			assertNotNull(inverse);
+			assertEquals(36.1, inverse.latitude, 1e-9);
+			assertEquals(139.9, inverse.longitude, 1e-9);
+
+			// 計算しない場合、記録済みでなければ見つからない
+			server.setCompute(false);
+			assertNull(api.bl2xy(36.1, 139.9, Zone.System09));
+			assertNotNull(api.bl2xy(36.0, 139.0, Zone.System09));
+
+			assertEquals(5, server.getRequestCount());
+			assertEquals(0, server.getErrorCount());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testError() throws Exception {
+		SokuchiStubServer server = new SokuchiStubServer();
+		server.setErrorRate(1.0, 503);
+		server.start();
+		try {
+			SokuchiAPI api = new SokuchiAPI(SokuchiKei.World, server.getUrl());
+			assertNull(api.bl2xy(36.0, 139.0, Zone.System09));
+			assertNull(api.xy2bl(0.0, 0.0, Zone.System09));
+
+			assertEquals(2, server.getRequestCount());
+			assertEquals(2, server.getErrorCount());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testLoadGenerator() throws Exception {
+		SokuchiStubServer server = new SokuchiStubServer();
+		server.start();
+		HttpClient client = SokuchiLoadGenerator.createHttpClient(4, 10000);
+		try {
+			SokuchiLoadGenerator generator = new SokuchiLoadGenerator(new SokuchiAPI(SokuchiKei.World, server.getUrl(), client), Zone.System09);
+
+			SokuchiLoadGenerator.Result result = generator.run(4, 100);
+			assertEquals(4, result.getConcurrency());
+			assertEquals(100, result.getRequests());
+			assertEquals(0, result.getErrors());
+			assertEquals(100, server.getRequestCount());
+
+			server.setErrorRate(1.0, 500);
+			result = generator.run(4, 20);
+			assertEquals(20, result.getRequests());
+			assertEquals(20, result.getErrors());
+			assertEquals(120, server.getRequestCount());
+			assertEquals(20, server.getErrorCount());
+		} finally {
+			client.getConnectionManager().shutdown();
+			server.stop();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.tile;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class WebMercatorTest extends TestCase {
+
+	@Test
+	public void test() {
+		// 東京駅
+		double lat = 35.681236;
+		double lon = 139.767125;
+		assertEquals(15558805.1846, WebMercator.lon2mx(lon), 1e-4);
+		assertEquals(4256848.1202, WebMercator.lat2my(lat), 1e-4);
+		assertEquals(lat, WebMercator.my2lat(WebMercator.lat2my(lat)), 1e-12);
+		assertEquals(lon, WebMercator.mx2lon(WebMercator.lon2mx(lon)), 1e-12);
+
+		assertEquals(29105, WebMercator.lon2tile(lon, 15));
+		assertEquals(12903, WebMercator.lat2tile(lat, 15));
+		assertEquals(256.0, WebMercator.lon2px(0.0, 1), 1e-9);
+		assertEquals(256.0, WebMercator.lat2py(0.0, 1), 1e-9);
+		assertEquals(0, WebMercator.lat2tile(90.0, 3));
+		assertEquals(7, WebMercator.lat2tile(-90.0, 3));
+
+		long tileId = WebMercator.tileId(18, 232847, 103226);
+		assertEquals(18, WebMercator.getZoom(tileId));
+		assertEquals(232847, WebMercator.getTileX(tileId));
+		assertEquals(103226, WebMercator.getTileY(tileId));
+		assertEquals(WebMercator.tileId(15, 29105, 12903), WebMercator.parent(tileId, 15));
+	}
+
+	@Test
+	public void testBucket() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 3000;
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = -30000.0 + (i % 100) * 600.0;
+			ys[i] = -20000.0 + (i / 100) * 1300.0;
+		}
+
+		long[] tileIds = new long[size];
+		WebMercator.xy2tile(survey, xs, ys, 0, size, Zone.System09, 12, tileIds);
+
+		double[] bl = new double[2];
+		for (int i = 0; i < size; i++) {
+			survey.xy2bl(xs[i], ys[i], Zone.System09, bl);
+			assertEquals(WebMercator.tileId(12, WebMercator.lon2tile(bl[1], 12), WebMercator.lat2tile(bl[0], 12)), tileIds[i]);
+		}
+
+		TileBuckets buckets = TileBuckets.bucket(tileIds, 0, size);
+		int[] indices = buckets.getIndices();
+		int count = 0;
+		for (int i = 0; i < buckets.size(); i++) {
+			if (0 < i) {
+				assertTrue(buckets.getTileId(i - 1) < buckets.getTileId(i));
+			}
+			assertEquals(i, buckets.indexOf(buckets.getTileId(i)));
+			for (int j = buckets.getStart(i); j < buckets.getEnd(i); j++) {
+				assertEquals(buckets.getTileId(i), tileIds[indices[j]]);
+				if (j > buckets.getStart(i)) {
+					assertTrue(indices[j - 1] < indices[j]);
+				}
+			}
+			count += buckets.getCount(i);
+		}
+		assertEquals(size, count);
+		assertEquals(-1, buckets.indexOf(WebMercator.tileId(0, 0, 0)));
+	}
+}
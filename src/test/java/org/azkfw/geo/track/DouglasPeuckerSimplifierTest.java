@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class DouglasPeuckerSimplifierTest extends TestCase {
+
+	@Test
+	public void test() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 5000;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		Random random = new Random(1);
+		double heading = 0.0;
+		double lat = 36.0;
+		double lon = 139.8;
+		for (int i = 0; i < size; i++) {
+			heading += random.nextGaussian() * 0.2;
+			lat += Math.cos(heading) * 0.00005;
+			lon += Math.sin(heading) * 0.00006;
+			latitudes[i] = lat;
+			longitudes[i] = lon;
+		}
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		survey.bl2xy(latitudes, longitudes, Zone.System09, xs, ys);
+
+		final List<Long> indices = new ArrayList<Long>();
+		DouglasPeuckerSimplifier simplifier = new DouglasPeuckerSimplifier(survey, Zone.System09, 2.0, 64, 100, new TrackListener() {
+			@Override
+			public void point(final long index, final double latitude, final double longitude, final double x, final double y) {
+				indices.add(index);
+			}
+		});
+		simplifier.add(latitudes, longitudes, 0, size);
+		simplifier.flush();
+
+		assertEquals(0L, (long) indices.get(0));
+		assertEquals(size - 1, (long) indices.get(indices.size() - 1));
+		assertTrue(indices.size() < size);
+
+		// 削除した座標は前後の確定した座標を結ぶ線分から許容距離以内
+		for (int k = 0; k + 1 < indices.size(); k++) {
+			int start = (int) (long) indices.get(k);
+			int end = (int) (long) indices.get(k + 1);
+			assertTrue(start < end);
+			double dx = xs[end] - xs[start];
+			double dy = ys[end] - ys[start];
+			for (int i = start + 1; i < end; i++) {
+				double d2 = DouglasPeuckerSimplifier.distance2(xs[i] - xs[start], ys[i] - ys[start], dx, dy, dx * dx + dy * dy);
+				assertTrue(4.0 >= d2);
+			}
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class TrackResamplerTest extends TestCase {
+
+	@Test
+	public void test() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 2000;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		Random random = new Random(1);
+		double heading = 0.0;
+		double lat = 36.0;
+		double lon = 139.8;
+		for (int i = 0; i < size; i++) {
+			heading += random.nextGaussian() * 0.2;
+			lat += Math.cos(heading) * 0.00005 * random.nextDouble();
+			lon += Math.sin(heading) * 0.00006 * random.nextDouble();
+			latitudes[i] = lat;
+			longitudes[i] = lon;
+		}
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		survey.bl2xy(latitudes, longitudes, Zone.System09, xs, ys);
+
+		// 経路に沿った距離
+		double[] distances = new double[size];
+		for (int i = 1; i < size; i++) {
+			distances[i] = distances[i - 1] + Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+		}
+
+		double interval = 7.5;
+		List<double[]> points = resample(survey, latitudes, longitudes, interval);
+		assertEquals((int) Math.floor(distances[size - 1] / interval) + 2, points.size());
+		for (int k = 0; k < points.size() - 1; k++) {
+			double[] point = points.get(k);
+			int index = (int) point[0];
+			double distance = distances[index] + Math.hypot(point[1] - xs[index], point[2] - ys[index]);
+			assertEquals(k * interval, distance, 1e-6);
+		}
+
+		// 最後の座標
+		double[] last = points.get(points.size() - 1);
+		assertEquals(size - 1, (int) last[0]);
+		assertEquals(xs[size - 1], last[1], 0.0);
+		assertEquals(ys[size - 1], last[2], 0.0);
+	}
+
+	@Test
+	public void testLastPoint() {
+		SurveyUtility survey = new SurveyUtility();
+
+		double[] latitudes = new double[] { 36.0, 36.001 };
+		double[] longitudes = new double[] { 139.8, 139.801 };
+		double[] xs = new double[2];
+		double[] ys = new double[2];
+		survey.bl2xy(latitudes, longitudes, Zone.System09, xs, ys);
+		double dx = xs[1] - xs[0];
+		double dy = ys[1] - ys[0];
+
+		// 最後の座標が間隔の位置と一致する場合も1回だけ通知する
+		List<double[]> points = resample(survey, latitudes, longitudes, Math.sqrt(dx * dx + dy * dy));
+		assertEquals(2, points.size());
+		assertEquals(1, (int) points.get(1)[0]);
+		assertEquals(xs[1], points.get(1)[1], 1e-9);
+		assertEquals(ys[1], points.get(1)[2], 1e-9);
+
+		points = resample(survey, latitudes, longitudes, Math.sqrt(dx * dx + dy * dy) / 2.0);
+		assertEquals(3, points.size());
+	}
+
+	@Test
+	public void testDuplicate() {
+		SurveyUtility survey = new SurveyUtility();
+
+		double[] latitudes = new double[] { 36.0, 36.0005, 36.001, 36.002 };
+		double[] longitudes = new double[] { 139.8, 139.8005, 139.801, 139.801 };
+		List<double[]> expected = resample(survey, latitudes, longitudes, 20.0);
+
+		// 同じ座標が連続する場合
+		double[] duplicateLatitudes = new double[] { 36.0, 36.0, 36.0005, 36.0005, 36.0005, 36.001, 36.002, 36.002 };
+		double[] duplicateLongitudes = new double[] { 139.8, 139.8, 139.8005, 139.8005, 139.8005, 139.801, 139.801, 139.801 };
+		List<double[]> points = resample(survey, duplicateLatitudes, duplicateLongitudes, 20.0);
+		assertEquals(expected.size(), points.size());
+		for (int k = 0; k < points.size(); k++) {
+			assertEquals(expected.get(k)[1], points.get(k)[1], 1e-9);
+			assertEquals(expected.get(k)[2], points.get(k)[2], 1e-9);
+		}
+
+		// 1座標のみの場合
+		points = resample(survey, new double[] { 36.0 }, new double[] { 139.8 }, 20.0);
+		assertEquals(1, points.size());
+		assertEquals(0, (int) points.get(0)[0]);
+
+		// 同じ座標のみの場合
+		points = resample(survey, new double[] { 36.0, 36.0, 36.0 }, new double[] { 139.8, 139.8, 139.8 }, 20.0);
+		assertEquals(1, points.size());
+	}
+
+	@Test
+	public void testDrain() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 100;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = 36.0 + i * 0.0001;
+			longitudes[i] = 139.8 + i * 0.0001;
+		}
+		List<double[]> expected = resample(survey, latitudes, longitudes, 20.0);
+
+		// バッチサイズに達する前に、座標を追加するごとに処理する
+		final List<double[]> points = new ArrayList<double[]>();
+		TrackResampler resampler = new TrackResampler(survey, Zone.System09, 20.0, new TrackListener() {
+			@Override
+			public void point(final long index, final double latitude, final double longitude, final double x, final double y) {
+				points.add(new double[] { index, x, y });
+			}
+		});
+		for (int i = 0; i < size; i++) {
+			resampler.add(latitudes[i], longitudes[i]);
+			resampler.drain();
+			// 最初の座標と、追加した座標までの区間の補間した座標を通知済み
+			int count = 1;
+			for (int k = 1; k < expected.size() - 1; k++) {
+				if (expected.get(k)[0] < i) {
+					count++;
+				}
+			}
+			assertEquals(count, points.size());
+		}
+		// 最後の座標は軌跡の終了時に通知する
+		assertEquals(expected.size() - 1, points.size());
+		resampler.flush();
+
+		// 軌跡は終了しないため、一括で処理した結果と一致する
+		assertEquals(expected.size(), points.size());
+		for (int k = 0; k < points.size(); k++) {
+			assertEquals(expected.get(k)[0], points.get(k)[0], 0.0);
+			assertEquals(expected.get(k)[1], points.get(k)[1], 1e-9);
+			assertEquals(expected.get(k)[2], points.get(k)[2], 1e-9);
+		}
+	}
+
+	private static List<double[]> resample(final SurveyUtility survey, final double[] latitudes, final double[] longitudes, final double interval) {
+		final List<double[]> points = new ArrayList<double[]>();
+		TrackResampler resampler = new TrackResampler(survey, Zone.System09, interval, 100, new TrackListener() {
+			@Override
+			public void point(final long index, final double latitude, final double longitude, final double x, final double y) {
+				points.add(new double[] { index, x, y });
+			}
+		});
+		resampler.add(latitudes, longitudes, 0, latitudes.length);
+		resampler.flush();
+		return points;
+	}
+}
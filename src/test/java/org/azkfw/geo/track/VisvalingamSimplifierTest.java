@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.track;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SurveyUtility;
+import org.azkfw.geo.Zone;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class VisvalingamSimplifierTest extends TestCase {
+
+	@Test
+	public void test() {
+		SurveyUtility survey = new SurveyUtility();
+
+		int size = 5000;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		track(latitudes, longitudes, 1);
+
+		for (int windowSize : new int[] { 3, 4, 64 }) {
+			List<Long> indices = simplify(survey, latitudes, longitudes, 50.0, windowSize);
+			assertEquals(0L, (long) indices.get(0));
+			assertEquals(size - 1, (long) indices.get(indices.size() - 1));
+			assertTrue(indices.size() < size);
+			for (int k = 0; k + 1 < indices.size(); k++) {
+				assertTrue(indices.get(k) < indices.get(k + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testWindow() {
+		SurveyUtility survey = new SurveyUtility();
+
+		// 窓に収まる場合は全体を一括で処理した結果と一致する
+		int size = 200;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		track(latitudes, longitudes, 2);
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		survey.bl2xy(latitudes, longitudes, Zone.System09, xs, ys);
+		assertEquals(eliminate(xs, ys, 50.0), simplify(survey, latitudes, longitudes, 50.0, size));
+
+		// 窓サイズを超える直線は窓ごとに処理し、最初と最後の座標のみ残る
+		size = 10000;
+		latitudes = new double[size];
+		longitudes = new double[size];
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = 36.0 + i * 0.00001;
+			longitudes[i] = 139.8;
+		}
+		List<Long> indices = simplify(survey, latitudes, longitudes, 1.0, 8);
+		assertEquals(2, indices.size());
+		assertEquals(0L, (long) indices.get(0));
+		assertEquals(size - 1, (long) indices.get(1));
+	}
+
+	private static void track(final double[] latitudes, final double[] longitudes, final long seed) {
+		Random random = new Random(seed);
+		double heading = 0.0;
+		double lat = 36.0;
+		double lon = 139.8;
+		for (int i = 0; i < latitudes.length; i++) {
+			heading += random.nextGaussian() * 0.3;
+			lat += Math.cos(heading) * 0.00005;
+			lon += Math.sin(heading) * 0.00006;
+			latitudes[i] = lat;
+			longitudes[i] = lon;
+		}
+	}
+
+	private static List<Long> simplify(final SurveyUtility survey, final double[] latitudes, final double[] longitudes, final double minArea,
+			final int windowSize) {
+		final List<Long> indices = new ArrayList<Long>();
+		VisvalingamSimplifier simplifier = new VisvalingamSimplifier(survey, Zone.System09, minArea, windowSize, 100, new TrackListener() {
+			@Override
+			public void point(final long index, final double latitude, final double longitude, final double x, final double y) {
+				indices.add(index);
+			}
+		});
+		simplifier.add(latitudes, longitudes, 0, latitudes.length);
+		simplifier.flush();
+		return indices;
+	}
+
+	/**
+	 * 有効面積が最小の座標を毎回探索して削除する(比較用)。
+	 */
+	private static List<Long> eliminate(final double[] xs, final double[] ys, final double minArea) {
+		List<Integer> points = new ArrayList<Integer>();
+		List<Double> areas = new ArrayList<Double>();
+		for (int i = 0; i < xs.length; i++) {
+			points.add(i);
+			areas.add((0 < i && i < xs.length - 1) ? area(xs, ys, i - 1, i, i + 1) : Double.POSITIVE_INFINITY);
+		}
+		while (true) {
+			int min = -1;
+			for (int k = 1; k < points.size() - 1; k++) {
+				if (areas.get(k) < minArea && (-1 == min || areas.get(k) < areas.get(min))) {
+					min = k;
+				}
+			}
+			if (-1 == min) {
+				break;
+			}
+			double minValue = areas.get(min);
+			points.remove(min);
+			areas.remove(min);
+			if (1 < min) {
+				areas.set(min - 1, Math.max(area(xs, ys, points.get(min - 2), points.get(min - 1), points.get(min)), minValue));
+			}
+			if (min < points.size() - 1) {
+				areas.set(min, Math.max(area(xs, ys, points.get(min - 1), points.get(min), points.get(min + 1)), minValue));
+			}
+		}
+		List<Long> indices = new ArrayList<Long>();
+		for (int i : points) {
+			indices.add((long) i);
+		}
+		return indices;
+	}
+
+	private static double area(final double[] xs, final double[] ys, final int a, final int b, final int c) {
+		return Math.abs((xs[b] - xs[a]) * (ys[c] - ys[a]) - (xs[c] - xs[a]) * (ys[b] - ys[a])) / 2.0;
+	}
+}
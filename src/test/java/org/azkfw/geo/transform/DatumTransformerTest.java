@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.geo.transform;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.azkfw.geo.SokuchiKei;
+import org.junit.Test;
+
+/**
+ * @since 1.0.0
+ * @version 1.0.0 2014/12/09
+ * @author kawakicchi
+ */
+public class DatumTransformerTest extends TestCase {
+
+	@Test
+	public void testGeocentric() {
+		Geocentric geocentric = new Geocentric(SokuchiKei.GRS80);
+		double[] xyz = new double[3];
+		double[] blh = new double[3];
+
+		geocentric.bl2ecef(0.0, 0.0, 0.0, xyz);
+		assertEquals(6378137.0, xyz[0], 1e-6);
+		assertEquals(0.0, xyz[1], 1e-6);
+		assertEquals(0.0, xyz[2], 1e-6);
+
+		geocentric.bl2ecef(90.0, 0.0, 0.0, xyz);
+		assertEquals(0.0, xyz[0], 1e-6);
+		assertEquals(6356752.314140, xyz[2], 1e-6);
+
+		// 往復変換
+		for (double height = -1000.0; height <= 10000.0; height += 5500.0) {
+			for (double lat = -90.0; lat <= 90.0; lat += 1.5) {
+				for (double lon = -180.0; lon < 180.0; lon += 7.5) {
+					geocentric.bl2ecef(lat, lon, height, xyz);
+					geocentric.ecef2bl(xyz[0], xyz[1], xyz[2], blh);
+					assertEquals(lat, blh[0], 1e-11);
+					if (90.0 > Math.abs(lat)) {
+						assertEquals(lon, blh[1], 1e-11);
+					}
+					assertEquals(height, blh[2], 1e-6);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTransform() throws Exception {
+		DatumTransformer transformer = new DatumTransformer(SokuchiKei.TokyoJapan, SokuchiKei.GRS80, HelmertParameters.TOKYO_TO_JGD2000);
+		double[] result = new double[3];
+
+		// 東京付近では緯度が約+11.6秒、経度が約-11.6秒ずれる
+		transformer.transform(35.658099, 139.741358, 0.0, result);
+		assertEquals(11.67, (result[0] - 35.658099) * 3600.0, 0.1);
+		assertEquals(-11.63, (result[1] - 139.741358) * 3600.0, 0.1);
+
+		DatumTransformer inverse = transformer.inverse();
+		inverse.transform(result[0], result[1], result[2], result);
+		assertEquals(35.658099, result[0], 1e-11);
+		assertEquals(139.741358, result[1], 1e-11);
+		assertEquals(0.0, result[2], 1e-6);
+
+		// 一括変換、並列変換は1点ずつの変換と一致
+		int size = 10000;
+		double[] latitudes = new double[size];
+		double[] longitudes = new double[size];
+		double[] heights = new double[size];
+		Random random = new Random(1);
+		for (int i = 0; i < size; i++) {
+			latitudes[i] = 24.0 + random.nextDouble() * 22.0;
+			longitudes[i] = 122.0 + random.nextDouble() * 32.0;
+			heights[i] = random.nextDouble() * 3000.0;
+		}
+		double[] lats = new double[size];
+		double[] lons = new double[size];
+		double[] hs = new double[size];
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			transformer.transform(latitudes, longitudes, heights, lats, lons, hs, executor);
+		} finally {
+			executor.shutdown();
+		}
+		for (int i = 0; i < size; i++) {
+			transformer.transform(latitudes[i], longitudes[i], heights[i], result);
+			assertEquals(result[0], lats[i], 1e-12);
+			assertEquals(result[1], lons[i], 1e-12);
+			assertEquals(result[2], hs[i], 1e-6);
+		}
+	}
+}